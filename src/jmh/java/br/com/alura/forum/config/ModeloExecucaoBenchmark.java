@@ -0,0 +1,119 @@
+package br.com.alura.forum.config;
+
+import br.com.alura.forum.ForumHubApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmark comparativo de vazão e latência entre o pool de threads do Tomcat
+ * e as threads virtuais com o limitador de concorrência.
+ *
+ * Sobe a aplicação completa (perfil h2, pool de 10 conexões) e dispara
+ * requisições HTTP autenticadas de 128 threads clientes. O modo SampleTime
+ * registra os percentis de latência (p50, p95, p99) no resultado JSON.
+ *
+ * As threads virtuais exigem Java 21: execute com
+ * mvn -P java21,benchmark verify -Djmh.include=ModeloExecucao. Em Java 17
+ * os dois modos usam o pool de threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(128)
+@Fork(1)
+public class ModeloExecucaoBenchmark {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+
+    @Param({ "false", "true" })
+    public boolean threadsVirtuais;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private HttpRequest obterTopico;
+    private HttpRequest listarTopicos;
+
+    @Setup
+    public void preparar() throws IOException, InterruptedException {
+        contexto = new SpringApplicationBuilder(ForumHubApplication.class)
+                .profiles("h2")
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--spring.datasource.hikari.maximum-pool-size=10",
+                        "--spring.threads.virtual.enabled=" + threadsVirtuais,
+                        "--api.concorrencia.habilitado=" + threadsVirtuais,
+                        "--logging.level.root=WARN",
+                        "--logging.level.br.com.alura=WARN",
+                        "--logging.level.org.springframework.web=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        String base = "http://localhost:" + porta + "/api";
+
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        String token = extrair(TOKEN, enviar(HttpRequest.newBuilder(URI.create(base + "/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"login\":\"admin@forum.com\",\"senha\":\"123456\"}"))
+                .build()));
+
+        String id = extrair(ID, enviar(HttpRequest.newBuilder(URI.create(base + "/topicos"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"titulo\":\"Tópico do benchmark\","
+                        + "\"mensagem\":\"Mensagem do tópico do benchmark\",\"autor\":\"Benchmark\",\"curso\":\"Java\"}"))
+                .build()));
+
+        obterTopico = HttpRequest.newBuilder(URI.create(base + "/topicos/" + id))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        listarTopicos = HttpRequest.newBuilder(URI.create(base + "/topicos?size=20"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int obterTopico() throws IOException, InterruptedException {
+        return cliente.send(obterTopico, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int listarTopicos() throws IOException, InterruptedException {
+        return cliente.send(listarTopicos, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private String enviar(HttpRequest requisicao) throws IOException, InterruptedException {
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static String extrair(Pattern padrao, String corpo) {
+        Matcher matcher = padrao.matcher(corpo);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Resposta inesperada: " + corpo);
+        }
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.alura.forum.dto.topico;
+
+import br.com.alura.forum.domain.topico.StatusTopico;
+import br.com.alura.forum.domain.topico.Topico;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da conversão de entidades em DetalhesTopicoDto e da serialização
+ * de uma página de tópicos, com o ObjectMapper configurado como na aplicação
+ * (spring.jackson.* de application.properties).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoTopicoBenchmark {
+
+    @Param({ "20", "100" })
+    public int tamanhoPagina;
+
+    private ObjectMapper objectMapper;
+    private List<Topico> topicos;
+    private PageImpl<DetalhesTopicoDto> pagina;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .timeZone(TimeZone.getTimeZone("America/Sao_Paulo"))
+                .build();
+
+        topicos = new ArrayList<>(tamanhoPagina);
+        for (long i = 1; i <= tamanhoPagina; i++) {
+            Topico topico = new Topico(
+                    "Tópico de benchmark número " + i,
+                    "Mensagem do tópico de benchmark, com um texto de tamanho típico para uma dúvida. ".repeat(4),
+                    "Autor " + i,
+                    "Spring Boot");
+            topico.setId(i);
+            topico.setStatus(StatusTopico.NAO_RESPONDIDO);
+            topico.setDataCriacao(LocalDateTime.now().minusMinutes(i));
+            topico.setDataAtualizacao(topico.getDataCriacao());
+            topico.setVersao(0L);
+            topicos.add(topico);
+        }
+
+        pagina = paginar(converter());
+    }
+
+    @Benchmark
+    public List<DetalhesTopicoDto> converterTopicos() {
+        return converter();
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] converterESerializarPagina() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paginar(converter()));
+    }
+
+    private List<DetalhesTopicoDto> converter() {
+        return topicos.stream().map(DetalhesTopicoDto::fromTopico).toList();
+    }
+
+    private PageImpl<DetalhesTopicoDto> paginar(List<DetalhesTopicoDto> conteudo) {
+        return new PageImpl<>(conteudo, PageRequest.of(0, tamanhoPagina), 10_000);
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.alura.forum.security;
+
+import br.com.alura.forum.domain.usuario.Usuario;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da geração e da validação de tokens JWT.
+ *
+ * O TokenService é criado por um contexto Spring mínimo, passando pelo mesmo
+ * {@code @PostConstruct} da aplicação. Com cacheEntradas = 0 o cache de tokens
+ * verificados fica desativado e validarToken mede a verificação completa da
+ * assinatura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    @Param({ "10000", "0" })
+    public int cacheEntradas;
+
+    private AnnotationConfigApplicationContext contexto;
+    private TokenService tokenService;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        contexto = new AnnotationConfigApplicationContext();
+        contexto.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "api.security.token.secret", "segredo-do-benchmark",
+                "api.security.token.cache.max-entries", cacheEntradas)));
+        contexto.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        contexto.register(TokenService.class);
+        contexto.refresh();
+
+        tokenService = contexto.getBean(TokenService.class);
+
+        usuario = new Usuario();
+        usuario.setLogin("benchmark@forum.com");
+        token = tokenService.gerarTokenAcesso(usuario);
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public String gerarTokenAcesso() {
+        return tokenService.gerarTokenAcesso(usuario);
+    }
+
+    @Benchmark
+    public String validarToken() {
+        return tokenService.validarToken(token);
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.ForumHubApplication;
+import br.com.alura.forum.domain.topico.StatusTopico;
+import br.com.alura.forum.dto.topico.AtualizacaoTopicoDto;
+import br.com.alura.forum.dto.topico.CadastroTopicoDto;
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.dto.topico.FiltroTopicosDto;
+import br.com.alura.forum.dto.topico.ResumoTopicoDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark das operações de CRUD do TopicoService sobre o H2 em memória
+ * (perfil h2), com a aplicação completa carregada.
+ *
+ * Cada fork sobe um contexto novo e cria {@link #TOPICOS_INICIAIS} tópicos
+ * antes das medições.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopicoServiceBenchmark {
+
+    private static final int TOPICOS_INICIAIS = 1_000;
+
+    private static final Pageable PRIMEIRA_PAGINA = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "dataCriacao"));
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private ConfigurableApplicationContext contexto;
+    private TopicoService topicoService;
+    private long primeiroId;
+
+    @Setup
+    public void preparar() {
+        // Argumentos de linha de comando, para sobrescrever application.properties
+        contexto = new SpringApplicationBuilder(ForumHubApplication.class)
+                .profiles("h2")
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.br.com.alura=WARN",
+                        "--logging.level.org.springframework.web=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+
+        topicoService = contexto.getBean(TopicoService.class);
+
+        primeiroId = criarTopico().id();
+        for (int i = 1; i < TOPICOS_INICIAIS; i++) {
+            criarTopico();
+        }
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public DetalhesTopicoDto criar() {
+        return criarTopico();
+    }
+
+    @Benchmark
+    public DetalhesTopicoDto obter() {
+        return topicoService.obterTopicoById(idAleatorio());
+    }
+
+    @Benchmark
+    public Page<ResumoTopicoDto> listar() {
+        return topicoService.listarTopicos(FiltroTopicosDto.vazio(), PRIMEIRA_PAGINA);
+    }
+
+    @Benchmark
+    public DetalhesTopicoDto atualizar() {
+        StatusTopico status = sequencia.incrementAndGet() % 2 == 0
+                ? StatusTopico.NAO_RESPONDIDO
+                : StatusTopico.NAO_SOLUCIONADO;
+
+        return topicoService.atualizarTopico(idAleatorio(), new AtualizacaoTopicoDto(null, null, status), null);
+    }
+
+    @Benchmark
+    public void criarEDeletar() {
+        topicoService.deletarTopico(criarTopico().id());
+    }
+
+    private DetalhesTopicoDto criarTopico() {
+        long numero = sequencia.incrementAndGet();
+        return topicoService.criarTopico(new CadastroTopicoDto(
+                "Tópico de benchmark " + numero,
+                "Mensagem do tópico de benchmark número " + numero,
+                "Autor do benchmark",
+                "Spring Boot"));
+    }
+
+    private long idAleatorio() {
+        return primeiroId + ThreadLocalRandom.current().nextInt(TOPICOS_INICIAIS);
+    }
+}
@@ -2,6 +2,7 @@ package br.com.alura.forum;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Classe principal da aplicação Spring Boot.
@@ -11,13 +12,26 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * Context Path: /api
  *
  * Endpoints disponíveis:
+ * - POST /api/login - Obter token JWT e token de atualização
+ * - POST /api/login/atualizar - Renovar token JWT
  * - POST /api/topicos - Criar novo tópico
+ * - POST /api/topicos/lote - Criar tópicos em lote
  * - GET /api/topicos - Listar tópicos
+ * - GET /api/topicos/cursor - Listar tópicos por cursor
+ * - GET /api/topicos/busca - Buscar tópicos por texto
+ * - GET /api/topicos/estatisticas - Quantidade de tópicos por curso e por status
+ * - GET /api/topicos/export - Exportar tópicos (NDJSON ou CSV)
+ * - GET /api/topicos/stream - Feed de alterações de tópicos (SSE)
+ * - POST /api/topicos/importacoes/{id} - Importar tópicos de um arquivo NDJSON
+ * - GET /api/topicos/importacoes/{id} - Progresso de uma importação
+ * - GET /api/topicos/importacoes/{id}/erros - Linhas rejeitadas de uma importação
  * - GET /api/topicos/{id} - Obter tópico
  * - PUT /api/topicos/{id} - Atualizar tópico
+ * - PATCH /api/topicos/{id} - Atualizar campos do tópico (If-Match)
  * - DELETE /api/topicos/{id} - Deletar tópico
  */
 @SpringBootApplication
+@EnableScheduling
 public class ForumHubApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,62 @@
+package br.com.alura.forum.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração do modo de execução em threads virtuais.
+ *
+ * As threads virtuais são habilitadas pelo próprio Spring Boot com
+ * spring.threads.virtual.enabled=true (requer Java 21; em versões anteriores
+ * a propriedade é ignorada e o Tomcat continua com o pool de threads). Esta
+ * classe registra o limitador de concorrência dos endpoints de tópicos e de
+ * login, habilitado com api.concorrencia.habilitado=true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.concorrencia.habilitado", havingValue = "true")
+@Slf4j
+public class ConcorrenciaConfig {
+
+    /**
+     * Registra o limitador antes do Spring Security, que também consulta o
+     * banco (usuário do token e login).
+     *
+     * @param maximoRequisicoes a quantidade máxima de requisições simultâneas
+     * @param esperaMaximaMs    o tempo máximo de espera por uma permissão
+     * @param objectMapper      o ObjectMapper da aplicação, para a resposta 503
+     * @param meterRegistry     o registro de métricas, para a ocupação do limite
+     * @return o registro do filtro
+     */
+    @Bean
+    public FilterRegistrationBean<LimiteConcorrenciaFilter> limiteConcorrenciaFilter(
+            @Value("${api.concorrencia.max-requisicoes:20}") int maximoRequisicoes,
+            @Value("${api.concorrencia.espera-maxima-ms:1000}") long esperaMaximaMs,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+
+        log.info("Limite de concorrência habilitado. Máximo: {}, Espera máxima: {} ms",
+                maximoRequisicoes, esperaMaximaMs);
+
+        LimiteConcorrenciaFilter filtro = new LimiteConcorrenciaFilter(maximoRequisicoes, esperaMaximaMs, objectMapper);
+
+        Gauge.builder("forum.concorrencia.em.andamento", filtro, LimiteConcorrenciaFilter::emAndamento)
+                .description("Requisições executando dentro do limite de concorrência")
+                .register(meterRegistry);
+        Gauge.builder("forum.concorrencia.aguardando", filtro, LimiteConcorrenciaFilter::aguardando)
+                .description("Requisições aguardando uma vaga no limite de concorrência")
+                .register(meterRegistry);
+
+        FilterRegistrationBean<LimiteConcorrenciaFilter> registro = new FilterRegistrationBean<>(filtro);
+        registro.addUrlPatterns("/topicos", "/topicos/*", "/login", "/login/*");
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registro;
+    }
+}
@@ -0,0 +1,165 @@
+package br.com.alura.forum.config;
+
+import br.com.alura.forum.dto.exception.ErroResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita a quantidade de requisições processadas simultaneamente nos
+ * endpoints que usam o banco de dados.
+ *
+ * Com threads virtuais não há mais o limite do pool de threads do Tomcat:
+ * milhares de requisições podem chegar ao mesmo tempo e disputar as poucas
+ * conexões do Hikari. O limitador mantém no máximo N requisições em
+ * andamento; as demais aguardam no semáforo (sem ocupar uma thread
+ * portadora, pois Semaphore não usa synchronized) por até o tempo máximo de
+ * espera e, depois disso, recebem 503 com Retry-After.
+ *
+ * A permissão é devolvida quando o processamento da requisição termina. Nas
+ * respostas assíncronas que continuam usando o banco depois disso (como a
+ * exportação em stream), o controller marca a requisição com
+ * {@link #MANTER_PERMISSAO_ASYNC} e a permissão só é devolvida ao fim do
+ * processamento assíncrono. As demais (como o feed SSE, que não usa conexões)
+ * não ocupam o limite enquanto a conexão fica aberta.
+ *
+ * Registrado por ConcorrenciaConfig, antes da cadeia do Spring Security.
+ */
+@Slf4j
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+    /**
+     * Atributo da requisição que mantém a permissão até o fim do
+     * processamento assíncrono.
+     */
+    public static final String MANTER_PERMISSAO_ASYNC = LimiteConcorrenciaFilter.class.getName() + ".MANTER_PERMISSAO_ASYNC";
+
+    private final Semaphore permissoes;
+    private final int maximoRequisicoes;
+    private final long esperaMaximaMs;
+    private final ObjectMapper objectMapper;
+
+    public LimiteConcorrenciaFilter(int maximoRequisicoes, long esperaMaximaMs, ObjectMapper objectMapper) {
+        // Justo (FIFO), para que nenhuma requisição espere indefinidamente
+        this.permissoes = new Semaphore(maximoRequisicoes, true);
+        this.maximoRequisicoes = maximoRequisicoes;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        boolean adquirida;
+        try {
+            adquirida = permissoes.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirida = false;
+        }
+
+        if (!adquirida) {
+            log.warn("Limite de concorrência atingido. Requisição recusada: {} {}",
+                    request.getMethod(), request.getRequestURI());
+            recusar(request, response);
+            return;
+        }
+
+        boolean liberarAoConcluir = false;
+        try {
+            filterChain.doFilter(request, response);
+
+            if (request.isAsyncStarted() && Boolean.TRUE.equals(request.getAttribute(MANTER_PERMISSAO_ASYNC))) {
+                request.getAsyncContext().addListener(new LiberacaoAsync());
+                liberarAoConcluir = true;
+            }
+        } finally {
+            if (!liberarAoConcluir) {
+                permissoes.release();
+            }
+        }
+    }
+
+    /**
+     * @return a quantidade de requisições em andamento
+     */
+    public int emAndamento() {
+        return maximoRequisicoes - permissoes.availablePermits();
+    }
+
+    /**
+     * @return a quantidade estimada de requisições aguardando permissão
+     */
+    public int aguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    private void recusar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Servidor sobrecarregado. Tente novamente em instantes.",
+                LocalDateTime.now(),
+                request.getRequestURI(),
+                null);
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), resposta);
+    }
+
+    /**
+     * Devolve a permissão uma única vez, ao concluir, expirar ou falhar o
+     * processamento assíncrono.
+     */
+    private final class LiberacaoAsync implements AsyncListener {
+
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Um novo ciclo assíncrono descarta os ouvintes registrados
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void liberar() {
+            if (liberada.compareAndSet(false, true)) {
+                permissoes.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.alura.forum.config;
+
+import br.com.alura.forum.security.CachePrincipais;
+import br.com.alura.forum.security.TokenService;
+import br.com.alura.forum.service.CacheDadosTopicos;
+import br.com.alura.forum.service.CacheDetalhesTopicos;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Métricas da aplicação expostas em /actuator/prometheus.
+ *
+ * O Spring Boot já publica a latência por endpoint (http.server.requests), o
+ * pool de conexões (hikaricp.connections.*) e a latência por método dos
+ * repositórios (spring.data.repository.invocations); os percentis desses
+ * timers são configurados em management.metrics.distribution.*. Esta classe
+ * acrescenta os caches de autenticação e de respostas de tópicos, que não são
+ * gerenciados pelo CacheManager do Spring.
+ */
+@Configuration
+public class MetricasConfig {
+
+    /**
+     * Publica tamanho, acertos, faltas e remoções dos caches de tokens e de
+     * usuários autenticados, com a tag cache.
+     *
+     * @param tokenService    o serviço de tokens
+     * @param cachePrincipais o cache de usuários autenticados
+     * @return o binder das métricas dos caches
+     */
+    @Bean
+    public MeterBinder metricasCachesAutenticacao(TokenService tokenService, CachePrincipais cachePrincipais) {
+        return registry -> {
+            registrarCache(registry, "tokens", tokenService,
+                    TokenService::estatisticasCache, TokenService::tamanhoCache);
+            registrarCache(registry, "principais", cachePrincipais,
+                    CachePrincipais::estatisticas, CachePrincipais::tamanho);
+        };
+    }
+
+    /**
+     * Publica as métricas do cache de respostas de GET /topicos/{id}, com a
+     * tag cache=topicos, e o total de bytes armazenados.
+     *
+     * @param cacheDetalhesTopicos o cache de respostas de tópicos
+     * @return o binder das métricas do cache
+     */
+    @Bean
+    public MeterBinder metricasCacheTopicos(CacheDetalhesTopicos cacheDetalhesTopicos) {
+        return registry -> {
+            registrarCache(registry, "topicos", cacheDetalhesTopicos,
+                    CacheDetalhesTopicos::estatisticas, CacheDetalhesTopicos::tamanho);
+
+            Gauge.builder("forum.cache.bytes", cacheDetalhesTopicos, CacheDetalhesTopicos::bytes)
+                    .description("Total aproximado de bytes armazenados no cache")
+                    .baseUnit("bytes")
+                    .tag("cache", "topicos")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Publica as métricas do cache de dados de tópicos, com a tag
+     * cache=dados-topicos, e o total aproximado de bytes armazenados.
+     *
+     * @param cacheDadosTopicos o cache de dados de tópicos
+     * @return o binder das métricas do cache
+     */
+    @Bean
+    public MeterBinder metricasCacheDadosTopicos(CacheDadosTopicos cacheDadosTopicos) {
+        return registry -> {
+            registrarCache(registry, "dados-topicos", cacheDadosTopicos,
+                    CacheDadosTopicos::estatisticas, CacheDadosTopicos::tamanho);
+
+            Gauge.builder("forum.cache.bytes", cacheDadosTopicos, CacheDadosTopicos::bytes)
+                    .description("Total aproximado de bytes armazenados no cache")
+                    .baseUnit("bytes")
+                    .tag("cache", "dados-topicos")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * O Micrometer mantém apenas referências fracas ao objeto observado; por
+     * isso o objeto é o próprio bean dono do cache, e não uma lambda.
+     */
+    private static <T> void registrarCache(MeterRegistry registry, String nome, T dono,
+                                           Function<T, CacheStats> estatisticas, ToLongFunction<T> tamanho) {
+
+        Gauge.builder("forum.cache.tamanho", dono, d -> tamanho.applyAsLong(d))
+                .description("Quantidade estimada de entradas no cache")
+                .tag("cache", nome)
+                .register(registry);
+
+        contador(registry, "forum.cache.consultas", nome, "acerto", dono, d -> estatisticas.apply(d).hitCount());
+        contador(registry, "forum.cache.consultas", nome, "falta", dono, d -> estatisticas.apply(d).missCount());
+
+        FunctionCounter.builder("forum.cache.remocoes", dono, d -> estatisticas.apply(d).evictionCount())
+                .description("Entradas removidas do cache por tamanho ou expiração")
+                .tag("cache", nome)
+                .register(registry);
+    }
+
+    private static <T> void contador(MeterRegistry registry, String metrica, String nome, String resultado,
+                                     T dono, ToDoubleFunction<T> valor) {
+
+        FunctionCounter.builder(metrica, dono, valor)
+                .description("Consultas ao cache, por resultado")
+                .tag("cache", nome)
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+}
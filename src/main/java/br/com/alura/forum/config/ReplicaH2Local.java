@@ -0,0 +1,65 @@
+package br.com.alura.forum.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Réplica local para o perfil h2-replica: ao final da inicialização, copia
+ * o banco H2 da primária (schema e dados) para o segundo banco H2 em memória
+ * usado como réplica.
+ *
+ * A cópia é feita uma única vez, sem replicação contínua: tópicos criados
+ * depois não aparecem na réplica, e o heartbeat da réplica envelhece. Isso
+ * permite observar tanto o roteamento das leituras quanto o retorno à
+ * primária quando o atraso passa de api.datasource.replica.atraso-maximo-ms.
+ */
+@Component
+@Profile("h2-replica")
+@Slf4j
+public class ReplicaH2Local {
+
+    private final JdbcTemplate primaria;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    public ReplicaH2Local(
+            @Qualifier("dataSourcePrimaria") DataSource primaria,
+            @Value("${api.datasource.replica.url}") String url,
+            @Value("${api.datasource.replica.username:sa}") String username,
+            @Value("${api.datasource.replica.password:}") String password) {
+
+        this.primaria = new JdbcTemplate(primaria);
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void copiarPrimaria() throws SQLException {
+        List<String> comandos = primaria.queryForList("SCRIPT NOPASSWORDS NOSETTINGS", String.class);
+
+        // Conexão direta: o pool da réplica é somente leitura
+        try (Connection conexao = DriverManager.getConnection(url, username, password);
+             Statement statement = conexao.createStatement()) {
+            for (String comando : comandos) {
+                statement.execute(comando);
+            }
+        }
+
+        log.info("Réplica H2 local criada a partir da primária. Comandos: {}", comandos.size());
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.alura.forum.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração da réplica de leitura, habilitada com
+ * api.datasource.replica.habilitado=true.
+ *
+ * Substitui o DataSource do Spring Boot por dois pools Hikari (primária e
+ * réplica) e um DataSource de roteamento: as transações somente leitura
+ * ({@code @Transactional(readOnly = true)}) usam a réplica enquanto ela
+ * estiver acessível e dentro do atraso máximo; todo o resto, inclusive
+ * Flyway, Hibernate e leituras dentro de transações de escrita, usa a
+ * primária.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.datasource.replica.habilitado", havingValue = "true")
+@Slf4j
+public class ReplicaLeituraConfig {
+
+    /**
+     * Pool da primária, configurado por spring.datasource.* e
+     * spring.datasource.hikari.*, como o DataSource padrão do Spring Boot.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    /**
+     * Pool da réplica, configurado por api.datasource.replica.* e
+     * api.datasource.replica.hikari.*. O pool não falha na inicialização se a
+     * réplica estiver fora do ar; as leituras vão para a primária até que ela
+     * responda.
+     */
+    @Bean
+    @ConfigurationProperties("api.datasource.replica.hikari")
+    public HikariDataSource dataSourceReplica(
+            DataSourceProperties properties,
+            @Value("${api.datasource.replica.url:}") String url,
+            @Value("${api.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${api.datasource.replica.password:${spring.datasource.password:}}") String password) {
+
+        if (url.isBlank()) {
+            throw new IllegalStateException(
+                    "api.datasource.replica.url é obrigatória com api.datasource.replica.habilitado=true");
+        }
+
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public VerificacaoReplica verificacaoReplica(
+            @Qualifier("dataSourcePrimaria") DataSource primaria,
+            @Qualifier("dataSourceReplica") DataSource replica,
+            @Value("${api.datasource.replica.atraso-maximo-ms:5000}") long atrasoMaximoMs,
+            MeterRegistry meterRegistry) {
+
+        log.info("Réplica de leitura habilitada. Atraso máximo: {} ms", atrasoMaximoMs);
+        return new VerificacaoReplica(primaria, replica, atrasoMaximoMs, meterRegistry);
+    }
+
+    /**
+     * DataSource usado pela aplicação. O LazyConnectionDataSourceProxy adia a
+     * obtenção da conexão até o primeiro comando, quando a transação já está
+     * marcada como somente leitura.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("dataSourcePrimaria") DataSource primaria,
+            @Qualifier("dataSourceReplica") DataSource replica,
+            VerificacaoReplica verificacaoReplica,
+            MeterRegistry meterRegistry) {
+
+        return new LazyConnectionDataSourceProxy(
+                new RoteamentoLeituraDataSource(primaria, replica, verificacaoReplica, meterRegistry));
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.alura.forum.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * DataSource que envia as transações somente leitura à réplica e as demais
+ * conexões à primária.
+ *
+ * A decisão depende de TransactionSynchronizationManager, que só marca a
+ * transação como somente leitura depois de iniciá-la; por isso este
+ * DataSource deve ser envolvido por um LazyConnectionDataSourceProxy, que
+ * adia a obtenção da conexão até o primeiro comando SQL.
+ *
+ * Se a réplica estiver indisponível ou atrasada, ou se a obtenção da conexão
+ * falhar, a conexão é obtida da primária.
+ */
+class RoteamentoLeituraDataSource extends AbstractDataSource {
+
+    private final DataSource primaria;
+    private final DataSource replica;
+    private final VerificacaoReplica verificacao;
+    private final Counter conexoesPrimaria;
+    private final Counter conexoesReplica;
+
+    RoteamentoLeituraDataSource(DataSource primaria, DataSource replica, VerificacaoReplica verificacao,
+                                MeterRegistry meterRegistry) {
+        this.primaria = primaria;
+        this.replica = replica;
+        this.verificacao = verificacao;
+        this.conexoesPrimaria = contador(meterRegistry, "primaria");
+        this.conexoesReplica = contador(meterRegistry, "replica");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return obterConexao(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return obterConexao(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Obtém a conexão da réplica, nas transações somente leitura com a réplica
+     * disponível, ou da primária. As credenciais, se informadas, são
+     * repassadas ao pool escolhido.
+     */
+    private Connection obterConexao(ObtencaoConexao obtencao) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && verificacao.isDisponivel()) {
+            try {
+                Connection conexao = obtencao.obter(replica);
+                conexoesReplica.increment();
+                return conexao;
+
+            } catch (SQLFeatureNotSupportedException e) {
+                // O pool não aceita credenciais por conexão; a réplica segue disponível
+                throw e;
+
+            } catch (SQLException e) {
+                verificacao.marcarIndisponivel(e);
+            }
+        }
+
+        Connection conexao = obtencao.obter(primaria);
+        conexoesPrimaria.increment();
+        return conexao;
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String destino) {
+        return Counter.builder("forum.datasource.conexoes")
+                .description("Conexões entregues pelo roteamento de leitura, por destino")
+                .tag("destino", destino)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface ObtencaoConexao {
+
+        Connection obter(DataSource dataSource) throws SQLException;
+    }
+}
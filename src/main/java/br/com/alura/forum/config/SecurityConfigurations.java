@@ -1,7 +1,12 @@
 package br.com.alura.forum.config;
 
+import br.com.alura.forum.security.PasswordEncoderIsolado;
+import br.com.alura.forum.security.PasswordEncoderMonitorado;
 import br.com.alura.forum.security.SecurityFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -46,8 +51,17 @@ public class SecurityConfigurations {
 
                 // Configura as autoridades de acesso aos endpoints
                 .authorizeHttpRequests(authorize -> authorize
+                        // Despachos assíncronos (fim de SSE e de respostas em stream)
+                        // continuam uma requisição já autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Permite acesso público ao endpoint de login
-                        .requestMatchers(HttpMethod.POST, "/login").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/login", "/login/atualizar").permitAll()
+
+                        // Health check público para orquestradores; as métricas
+                        // (/actuator/prometheus) exigem token
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").authenticated()
 
                         // Requer autenticação para todos os outros endpoints
                         .anyRequest().authenticated())
@@ -73,12 +87,27 @@ public class SecurityConfigurations {
     /**
      * Exporta o PasswordEncoder (BCrypt) como bean.
      * Usado para codificar senhas durante o registro e comparação durante a
-     * autenticação.
+     * autenticação. As comparações são executadas em um executor dedicado, de
+     * threads e fila limitadas (com 0 threads, usa metade dos núcleos), e
+     * medidas pelo timer forum.login.senha.
      *
-     * @return um novo BCryptPasswordEncoder
+     * @param threads        a quantidade de threads de verificação
+     * @param tamanhoFila    a quantidade máxima de verificações aguardando
+     * @param esperaMaximaMs o tempo máximo de espera por uma verificação
+     * @param meterRegistry  o registro de métricas
+     * @return um BCryptPasswordEncoder isolado e monitorado
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${api.security.login.verificacao.threads:0}") int threads,
+            @Value("${api.security.login.verificacao.fila:50}") int tamanhoFila,
+            @Value("${api.security.login.verificacao.espera-maxima-ms:2000}") long esperaMaximaMs,
+            MeterRegistry meterRegistry) {
+
+        int quantidade = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        return new PasswordEncoderIsolado(
+                new PasswordEncoderMonitorado(new BCryptPasswordEncoder(), meterRegistry),
+                quantidade, tamanhoFila, esperaMaximaMs, meterRegistry);
     }
 }
@@ -0,0 +1,99 @@
+package br.com.alura.forum.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Verifica periodicamente se a réplica de leitura pode receber as transações
+ * somente leitura.
+ *
+ * Com atraso máximo configurado, grava o instante atual na tabela
+ * replicacao_heartbeat da primária e o lê em seguida na réplica: a diferença
+ * é o atraso da replicação, com resolução igual ao intervalo da verificação.
+ * Sem atraso máximo, apenas a conexão com a réplica é testada.
+ */
+@Slf4j
+public class VerificacaoReplica {
+
+    private static final String GRAVAR_HEARTBEAT =
+            "UPDATE replicacao_heartbeat SET atualizado_em = ? WHERE id = 1";
+    private static final String LER_HEARTBEAT =
+            "SELECT atualizado_em FROM replicacao_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primaria;
+    private final JdbcTemplate replica;
+    private final long atrasoMaximoMs;
+    private volatile boolean disponivel;
+    private volatile long atrasoMs = -1;
+
+    public VerificacaoReplica(DataSource primaria, DataSource replica, long atrasoMaximoMs,
+                              MeterRegistry meterRegistry) {
+        this.primaria = new JdbcTemplate(primaria);
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(2);
+        this.atrasoMaximoMs = atrasoMaximoMs;
+
+        Gauge.builder("forum.datasource.replica.disponivel", this, v -> v.disponivel ? 1 : 0)
+                .description("Indica se as transações somente leitura estão sendo enviadas à réplica")
+                .register(meterRegistry);
+        Gauge.builder("forum.datasource.replica.atraso", this, v -> v.atrasoMs)
+                .description("Atraso da replicação medido pelo heartbeat (-1 se desconhecido)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true se a réplica está acessível e dentro do atraso máximo
+     */
+    public boolean isDisponivel() {
+        return disponivel;
+    }
+
+    @Scheduled(fixedDelayString = "${api.datasource.replica.verificacao-ms:1000}")
+    public void verificar() {
+        try {
+            if (atrasoMaximoMs > 0) {
+                long agora = System.currentTimeMillis();
+                primaria.update(GRAVAR_HEARTBEAT, agora);
+                Long replicado = replica.queryForObject(LER_HEARTBEAT, Long.class);
+
+                atrasoMs = replicado == null ? -1 : Math.max(0, agora - replicado);
+                alterar(atrasoMs >= 0 && atrasoMs <= atrasoMaximoMs, "atraso de " + atrasoMs + " ms");
+            } else {
+                replica.queryForObject("SELECT 1", Integer.class);
+                alterar(true, "conexão restabelecida");
+            }
+
+        } catch (DataAccessException e) {
+            atrasoMs = -1;
+            alterar(false, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * Retira a réplica do roteamento até a próxima verificação bem-sucedida.
+     * Usado quando a obtenção de uma conexão da réplica falha.
+     *
+     * @param causa a falha ao obter a conexão
+     */
+    void marcarIndisponivel(Exception causa) {
+        alterar(false, causa.getMessage());
+    }
+
+    private void alterar(boolean novoEstado, String motivo) {
+        if (disponivel != novoEstado) {
+            disponivel = novoEstado;
+            if (novoEstado) {
+                log.info("Réplica de leitura disponível: {}", motivo);
+            } else {
+                log.warn("Réplica de leitura indisponível; leituras enviadas à primária: {}", motivo);
+            }
+        }
+    }
+}
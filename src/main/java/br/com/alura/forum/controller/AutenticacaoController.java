@@ -1,9 +1,14 @@
 package br.com.alura.forum.controller;
 
+import br.com.alura.forum.dto.autenticacao.DadosAtualizacaoToken;
 import br.com.alura.forum.dto.autenticacao.DadosAutenticacao;
 import br.com.alura.forum.dto.autenticacao.DadosTokenJWT;
 import br.com.alura.forum.domain.usuario.Usuario;
+import br.com.alura.forum.exception.LoginLimitadoException;
+import br.com.alura.forum.security.LimiteTentativasLogin;
+import br.com.alura.forum.security.TokenAtualizacaoService;
 import br.com.alura.forum.security.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,7 +23,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 /**
  * Controller REST para autenticação de usuários.
- * Responsável pelo endpoint de login e geração de tokens JWT.
+ * Responsável pelo endpoint de login, geração de tokens JWT e renovação dos
+ * tokens pelo token de atualização.
  */
 @RestController
 @RequestMapping("/login")
@@ -28,17 +34,25 @@ public class AutenticacaoController {
 
     private final AuthenticationManager authenticationManager;
     private final TokenService tokenService;
+    private final LimiteTentativasLogin limiteTentativasLogin;
+    private final TokenAtualizacaoService tokenAtualizacaoService;
 
     /**
-     * Autentica um usuário e retorna um token JWT.
+     * Autentica um usuário e retorna um token JWT e um token de atualização.
+     * As tentativas são limitadas por login e por IP antes da verificação da
+     * senha; acima do limite, a resposta é 429 com Retry-After.
      *
-     * @param dados os dados de autenticação (login e senha)
+     * @param dados   os dados de autenticação (login e senha)
+     * @param request a requisição, para o endereço de origem
      * @return ResponseEntity contendo o token JWT gerado
      */
     @PostMapping
-    public ResponseEntity<DadosTokenJWT> autenticar(@Valid @RequestBody DadosAutenticacao dados) {
+    public ResponseEntity<DadosTokenJWT> autenticar(@Valid @RequestBody DadosAutenticacao dados,
+                                                    HttpServletRequest request) {
         log.info("Tentativa de autenticação para usuário: {}", dados.login());
 
+        limiteTentativasLogin.verificar(dados.login(), request.getRemoteAddr());
+
         try {
             // Cria um token de autenticação com login e senha
             var authenticationToken = new UsernamePasswordAuthenticationToken(
@@ -51,17 +65,35 @@ public class AutenticacaoController {
             // Extrai o usuário autenticado
             Usuario usuario = (Usuario) authentication.getPrincipal();
 
-            // Gera o token JWT
-            String token = tokenService.gerarToken(usuario);
+            // Gera o token JWT de curta duração, renovado pelo token de
+            // atualização
+            String token = tokenService.gerarTokenAcesso(usuario);
 
             log.info("Autenticação bem-sucedida para usuário: {}", dados.login());
 
-            // Retorna o token em um DTO com tipo "Bearer"
-            return ResponseEntity.ok(DadosTokenJWT.bearer(token));
+            // Retorna o token em um DTO com tipo "Bearer", com o token de
+            // atualização de uma nova sessão
+            return ResponseEntity.ok(DadosTokenJWT.bearer(token, tokenAtualizacaoService.emitir(usuario)));
+
+        } catch (LoginLimitadoException e) {
+            throw e;
 
         } catch (Exception e) {
             log.warn("Falha na autenticação para usuário: {}", dados.login());
             return ResponseEntity.status(401).build();
         }
     }
+
+    /**
+     * Renova o token JWT a partir do token de atualização, sem verificar a
+     * senha. O token de atualização é substituído por um novo a cada uso.
+     *
+     * @param dados o token de atualização
+     * @return ResponseEntity contendo o novo token JWT e o novo token de
+     *         atualização
+     */
+    @PostMapping("/atualizar")
+    public ResponseEntity<DadosTokenJWT> atualizar(@Valid @RequestBody DadosAtualizacaoToken dados) {
+        return ResponseEntity.ok(tokenAtualizacaoService.atualizar(dados.tokenAtualizacao()));
+    }
 }
@@ -0,0 +1,166 @@
+package br.com.alura.forum.controller;
+
+import br.com.alura.forum.dto.topico.ResumoTopicoDto;
+import org.springframework.http.CacheControl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * ETags e cabeçalhos de cache dos endpoints de tópicos.
+ *
+ * A ETag de um tópico é derivada do ID e da versão da linha, sem serializar o
+ * corpo; a resposta em gzip é outro corpo e recebe a mesma ETag com o sufixo
+ * "-gzip". A ETag de uma listagem é um hash dos IDs e versões dos itens da
+ * página e do total de elementos: muda quando qualquer item é alterado,
+ * criado ou removido.
+ */
+final class EtagTopicos {
+
+    /**
+     * As respostas são por usuário e devem ser revalidadas a cada uso; o
+     * cliente reaproveita o corpo quando recebe 304.
+     */
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private static final String SUFIXO_GZIP = "-gzip";
+
+    private EtagTopicos() {
+    }
+
+    /**
+     * @param id     o ID do tópico
+     * @param versao a versão do tópico
+     * @return a ETag forte do tópico
+     */
+    static String deTopico(Long id, Long versao) {
+        return "\"" + id + "-" + versao + "\"";
+    }
+
+    /**
+     * @param id     o ID do tópico
+     * @param versao a versão do tópico
+     * @return a ETag forte da resposta do tópico em gzip
+     */
+    static String deTopicoGzip(Long id, Long versao) {
+        return "\"" + id + "-" + versao + SUFIXO_GZIP + "\"";
+    }
+
+    /**
+     * Verifica o cabeçalho If-None-Match contra as ETags do tópico com e sem
+     * gzip, com comparação fraca.
+     *
+     * @param ifNoneMatch o valor do cabeçalho If-None-Match
+     * @param id          o ID do tópico
+     * @param versao      a versão atual do tópico
+     * @return a ETag correspondente, ou null se nenhuma corresponder
+     */
+    static String correspondenteNaoModificado(String ifNoneMatch, Long id, Long versao) {
+        String etag = deTopico(id, versao);
+        String etagGzip = deTopicoGzip(id, versao);
+        for (String candidata : ifNoneMatch.split(",")) {
+            String valor = candidata.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return etag;
+            }
+            if (valor.equals(etagGzip)) {
+                return etagGzip;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param itens  os resumos dos tópicos da página
+     * @param extras valores adicionais que identificam a página (total,
+     *               cursores)
+     * @return a ETag forte da página
+     */
+    static String deListagem(List<ResumoTopicoDto> itens, Object... extras) {
+        StringBuilder chave = new StringBuilder(itens.size() * 16);
+        for (ResumoTopicoDto item : itens) {
+            chave.append(item.id()).append(':').append(item.versao()).append(',');
+        }
+        for (Object extra : extras) {
+            chave.append('|').append(extra);
+        }
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(chave.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Verifica o cabeçalho If-Match contra a ETag atual do tópico, com ou sem
+     * gzip, com comparação forte.
+     *
+     * @param ifMatch o valor do cabeçalho If-Match
+     * @param id      o ID do tópico
+     * @param versao  a versão atual do tópico
+     * @return true se o cabeçalho for "*" ou contiver uma das ETags atuais
+     */
+    static boolean corresponde(String ifMatch, Long id, Long versao) {
+        String etag = deTopico(id, versao);
+        String etagGzip = deTopicoGzip(id, versao);
+        for (String candidata : ifMatch.split(",")) {
+            String valor = candidata.trim();
+            if (valor.equals("*") || valor.equals(etag) || valor.equals(etagGzip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extrai a versão de um If-Match que contém exatamente a ETag forte do
+     * tópico informado, com ou sem gzip.
+     *
+     * @param ifMatch o valor do cabeçalho If-Match (pode ser null)
+     * @param id      o ID do tópico
+     * @return a versão, ou null se o cabeçalho estiver ausente, for "*", uma
+     *         lista ou a ETag de outro recurso
+     */
+    static Long versaoDe(String ifMatch, Long id) {
+        if (ifMatch == null) {
+            return null;
+        }
+
+        String prefixo = "\"" + id + "-";
+        String valor = ifMatch.trim();
+        if (!valor.startsWith(prefixo) || !valor.endsWith("\"") || valor.length() <= prefixo.length() + 1) {
+            return null;
+        }
+
+        String versao = valor.substring(prefixo.length(), valor.length() - 1);
+        if (versao.endsWith(SUFIXO_GZIP)) {
+            versao = versao.substring(0, versao.length() - SUFIXO_GZIP.length());
+        }
+
+        try {
+            return Long.parseLong(versao);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param data a data de alteração, no fuso da aplicação
+     * @return a data em milissegundos, ou -1 se ausente
+     */
+    static long emMilissegundos(LocalDateTime data) {
+        return data == null ? -1 : data.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,27 +1,74 @@
 package br.com.alura.forum.controller;
 
+import br.com.alura.forum.config.LimiteConcorrenciaFilter;
+import br.com.alura.forum.dto.paginacao.PaginaCursorDto;
 import br.com.alura.forum.dto.topico.AtualizacaoTopicoDto;
 import br.com.alura.forum.dto.topico.CadastroTopicoDto;
 import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.dto.topico.EstatisticasTopicosDto;
+import br.com.alura.forum.dto.topico.FiltroTopicosDto;
+import br.com.alura.forum.dto.topico.FormatoExportacao;
+import br.com.alura.forum.dto.topico.ImportacaoTopicosDto;
+import br.com.alura.forum.dto.topico.ResultadoLoteDto;
+import br.com.alura.forum.dto.topico.ResultadoBuscaTopicoDto;
+import br.com.alura.forum.dto.topico.ResumoTopicoDto;
+import br.com.alura.forum.dto.topico.VersaoTopicoDto;
+import br.com.alura.forum.exception.VersaoTopicoDesatualizadaException;
+import br.com.alura.forum.exception.VersaoTopicoObrigatoriaException;
+import br.com.alura.forum.service.CacheDetalhesTopicos;
+import br.com.alura.forum.service.CacheDetalhesTopicos.DetalhesSerializados;
+import br.com.alura.forum.service.EstatisticasTopicos;
+import br.com.alura.forum.service.FeedAlteracoesTopicos;
+import br.com.alura.forum.service.LeiturasCompartilhadasTopicos;
+import br.com.alura.forum.service.TopicoExportacaoService;
+import br.com.alura.forum.service.TopicoImportacaoService;
+import br.com.alura.forum.service.TopicoLoteService;
 import br.com.alura.forum.service.TopicoService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Controller REST para gerenciar os endpoints relacionados a tópicos.
  * 
  * Endpoints disponíveis:
  * - POST /topicos - Criar novo tópico
+ * - POST /topicos/lote - Criar tópicos em lote
  * - GET /topicos - Listar tópicos (paginado)
- * - GET /topicos/{id} - Obter detalhes de um tópico
+ * - GET /topicos/cursor - Listar tópicos (paginado por cursor)
+ * - GET /topicos/busca - Buscar tópicos por texto (paginado por relevância)
+ * - GET /topicos/estatisticas - Obter a quantidade de tópicos por curso e por status
+ * - GET /topicos/export - Exportar tópicos em NDJSON ou CSV (stream)
+ * - GET /topicos/stream - Acompanhar criações, atualizações e remoções (SSE)
+ * - POST /topicos/importacoes/{id} - Importar tópicos de um arquivo NDJSON (stream)
+ * - GET /topicos/importacoes/{id} - Obter o progresso de uma importação
+ * - GET /topicos/importacoes/{id}/erros - Obter as linhas rejeitadas de uma importação
+ * - GET /topicos/{id} - Obter detalhes de um tópico (inclusive arquivado)
  * - PUT /topicos/{id} - Atualizar um tópico
+ * - PATCH /topicos/{id} - Atualizar campos de um tópico (exige If-Match)
  * - DELETE /topicos/{id} - Deletar um tópico
+ *
+ * As respostas de tópicos e listagens trazem ETag (derivada da versão dos
+ * tópicos); GET responde 304 a If-None-Match, PUT aceita If-Match e PATCH
+ * o exige, para controle de concorrência otimista.
  */
 @RestController
 @RequestMapping("/topicos")
@@ -30,6 +77,13 @@ import org.springframework.web.bind.annotation.*;
 public class TopicoController {
 
     private final TopicoService topicoService;
+    private final TopicoLoteService topicoLoteService;
+    private final TopicoExportacaoService topicoExportacaoService;
+    private final TopicoImportacaoService topicoImportacaoService;
+    private final FeedAlteracoesTopicos feedAlteracoesTopicos;
+    private final EstatisticasTopicos estatisticasTopicos;
+    private final CacheDetalhesTopicos cacheDetalhesTopicos;
+    private final LeiturasCompartilhadasTopicos leiturasCompartilhadas;
 
     /**
      * POST /topicos
@@ -46,63 +100,359 @@ public class TopicoController {
 
         DetalhesTopicoDto topicoReposta = topicoService.criarTopico(dto);
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(topicoReposta);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(EtagTopicos.deTopico(topicoReposta.id(), topicoReposta.versao()))
+                .body(topicoReposta);
+    }
+
+    /**
+     * POST /topicos/lote
+     * Cria vários tópicos de uma vez. Cada item é validado individualmente;
+     * itens inválidos ou duplicados são informados na resposta sem impedir a
+     * criação dos demais.
+     *
+     * @param dtos os tópicos a serem criados
+     * @return ResponseEntity com status 200 e o resultado de cada item
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteDto> criarTopicosEmLote(
+            @RequestBody List<CadastroTopicoDto> dtos) {
+
+        log.info("Requisição POST /topicos/lote recebida. Itens: {}", dtos.size());
+
+        return ResponseEntity.ok(topicoLoteService.criarEmLote(dtos));
     }
 
     /**
      * GET /topicos
      * Lista todos os tópicos com paginação.
+     * Cada item traz apenas um resumo da mensagem; o conteúdo completo é obtido
+     * em GET /topicos/{id}.
+     * Aceita os filtros opcionais curso, status, autor, de e ate.
      *
+     * @param filtro   os filtros da listagem
      * @param pageable informações de paginação (page, size, sort)
-     * @return ResponseEntity com status 200 e lista paginada de tópicos
+     * @return ResponseEntity com status 200 e lista paginada de tópicos, ou 304
+     *         se a ETag informada em If-None-Match ainda for válida
      */
     @GetMapping
-    public ResponseEntity<Page<DetalhesTopicoDto>> listarTopicos(Pageable pageable) {
+    public ResponseEntity<Page<ResumoTopicoDto>> listarTopicos(FiltroTopicosDto filtro, Pageable pageable) {
         log.info("Requisição GET /topicos recebida. Página: {}, Tamanho: {}",
                 pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<DetalhesTopicoDto> topicos = topicoService.listarTopicos(pageable);
+        Page<ResumoTopicoDto> topicos = leiturasCompartilhadas.listarTopicos(filtro, pageable);
+
+        // Com If-None-Match igual à ETag, o Spring responde 304 sem serializar
+        return ResponseEntity.ok()
+                .eTag(EtagTopicos.deListagem(topicos.getContent(), topicos.getTotalElements()))
+                .cacheControl(EtagTopicos.CACHE_CONTROL)
+                .body(topicos);
+    }
+
+    /**
+     * GET /topicos/cursor
+     * Lista os tópicos paginados por cursor, do mais recente para o mais antigo.
+     * Não executa COUNT; o custo de cada página independe da profundidade.
+     * Aceita os mesmos filtros de GET /topicos.
+     *
+     * @param filtro os filtros da listagem
+     * @param cursor o cursor opaco retornado pela página anterior (opcional)
+     * @param size   a quantidade de itens por página (máximo 100)
+     * @return ResponseEntity com status 200 e a página de tópicos
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaCursorDto<ResumoTopicoDto>> listarTopicosPorCursor(
+            FiltroTopicosDto filtro,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        log.info("Requisição GET /topicos/cursor recebida. Tamanho: {}", size);
+
+        PaginaCursorDto<ResumoTopicoDto> topicos = leiturasCompartilhadas.listarTopicosPorCursor(filtro, cursor, size);
+
+        return ResponseEntity.ok()
+                .eTag(EtagTopicos.deListagem(topicos.conteudo(), topicos.proximoCursor(), topicos.cursorAnterior()))
+                .cacheControl(EtagTopicos.CACHE_CONTROL)
+                .body(topicos);
+    }
+
+    /**
+     * GET /topicos/busca
+     * Busca tópicos pelo texto do título e da mensagem, ordenados por
+     * relevância.
+     *
+     * @param q        o texto da busca
+     * @param pageable informações de paginação (page, size)
+     * @return ResponseEntity com status 200 e a página de resultados
+     */
+    @GetMapping("/busca")
+    public ResponseEntity<Page<ResultadoBuscaTopicoDto>> buscarTopicos(
+            @RequestParam String q,
+            Pageable pageable) {
+
+        log.info("Requisição GET /topicos/busca recebida. Consulta: '{}'", q);
+
+        Page<ResultadoBuscaTopicoDto> resultados = topicoService.buscarTopicos(q, pageable);
+
+        return ResponseEntity.ok(resultados);
+    }
+
+    /**
+     * GET /topicos/estatisticas
+     * Obtém a quantidade de tópicos no total, por curso e por status. Os
+     * valores vêm de contadores em memória, sem consulta ao banco, e são
+     * conferidos com o banco periodicamente.
+     *
+     * @return ResponseEntity com status 200 e as estatísticas
+     */
+    @GetMapping("/estatisticas")
+    public ResponseEntity<EstatisticasTopicosDto> obterEstatisticas() {
+        log.info("Requisição GET /topicos/estatisticas recebida");
+
+        return ResponseEntity.ok(estatisticasTopicos.obter());
+    }
+
+    /**
+     * GET /topicos/export
+     * Exporta todos os tópicos que atendem aos filtros, com a mensagem
+     * completa, em NDJSON (padrão) ou CSV. A resposta é escrita à medida que
+     * as linhas são lidas do banco, sem paginação e sem COUNT.
+     * Aceita os mesmos filtros de GET /topicos.
+     *
+     * O corpo é escrito de forma assíncrona, ocupando uma conexão do banco
+     * até o fim; a requisição mantém a permissão do limite de concorrência
+     * durante todo o stream.
+     *
+     * @param filtro  os filtros da exportação
+     * @param formato ndjson ou csv
+     * @param request a requisição, marcada para manter a permissão do limite
+     *                de concorrência
+     * @return ResponseEntity com status 200 e o corpo em stream
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarTopicos(
+            FiltroTopicosDto filtro,
+            @RequestParam(defaultValue = "ndjson") String formato,
+            HttpServletRequest request) {
+
+        log.info("Requisição GET /topicos/export recebida. Formato: {}", formato);
+
+        request.setAttribute(LimiteConcorrenciaFilter.MANTER_PERMISSAO_ASYNC, Boolean.TRUE);
+
+        FormatoExportacao formatoExportacao = FormatoExportacao.de(formato);
+        StreamingResponseBody corpo = saida -> topicoExportacaoService.exportar(filtro, formatoExportacao, saida);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoExportacao.getTipoConteudo() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("topicos." + formatoExportacao.getExtensao())
+                        .build()
+                        .toString())
+                .body(corpo);
+    }
+
+    /**
+     * GET /topicos/stream
+     * Acompanha as criações, atualizações e remoções de tópicos em
+     * Server-Sent Events, a partir do momento da conexão. Com o cabeçalho
+     * Last-Event-ID, reenvia antes os eventos perdidos desde esse ID, se
+     * ainda estiverem no histórico recente; caso contrário, envia o evento
+     * "reinicio".
+     *
+     * @param ultimoEventoId o ID do último evento recebido (opcional)
+     * @return o emissor SSE, ou 503 se o limite de assinantes foi atingido
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharTopicos(
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+
+        log.info("Requisição GET /topicos/stream recebida. Last-Event-ID: {}", ultimoEventoId);
 
-        return ResponseEntity.ok(topicos);
+        return feedAlteracoesTopicos.assinar(ultimoEventoId);
+    }
+
+    /**
+     * POST /topicos/importacoes/{id}
+     * Importa tópicos de um arquivo NDJSON (um tópico JSON por linha), lido
+     * em stream e gravado em chunks transacionais. Se a importação for
+     * interrompida, reenviar o mesmo arquivo com o mesmo ID retoma a partir
+     * da última linha confirmada.
+     *
+     * @param id    o ID da importação, escolhido pelo cliente
+     * @param corpo o conteúdo NDJSON
+     * @return ResponseEntity com status 200 e o progresso final, 400 se o ID
+     *         for inválido, ou 409 se a importação já estiver em andamento
+     */
+    @PostMapping(value = "/importacoes/{id}", consumes = "application/x-ndjson")
+    public ResponseEntity<ImportacaoTopicosDto> importarTopicos(
+            @PathVariable String id,
+            InputStream corpo) {
+
+        log.info("Requisição POST /topicos/importacoes/{} recebida", id);
+
+        return ResponseEntity.ok(topicoImportacaoService.importar(id, corpo));
+    }
+
+    /**
+     * GET /topicos/importacoes/{id}
+     * Obtém o progresso de uma importação, inclusive durante a execução.
+     *
+     * @param id o ID da importação
+     * @return ResponseEntity com status 200 e o progresso, ou 404 se não
+     *         encontrada
+     */
+    @GetMapping("/importacoes/{id}")
+    public ResponseEntity<ImportacaoTopicosDto> obterImportacao(@PathVariable String id) {
+        log.info("Requisição GET /topicos/importacoes/{} recebida", id);
+
+        return ResponseEntity.ok(topicoImportacaoService.obter(id));
+    }
+
+    /**
+     * GET /topicos/importacoes/{id}/erros
+     * Obtém as linhas rejeitadas de uma importação, em NDJSON, com o número da
+     * linha, os erros e o conteúdo original.
+     *
+     * @param id o ID da importação
+     * @return ResponseEntity com status 200 e o arquivo de erros, ou 404 se
+     *         não encontrado
+     */
+    @GetMapping("/importacoes/{id}/erros")
+    public ResponseEntity<Resource> obterErrosImportacao(@PathVariable String id) {
+        log.info("Requisição GET /topicos/importacoes/{}/erros recebida", id);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"))
+                .body(new FileSystemResource(topicoImportacaoService.arquivoErros(id)));
     }
 
     /**
      * GET /topicos/{id}
      * Obtém os detalhes de um tópico específico.
+     * A resposta vem do cache de respostas serializadas quando possível, já
+     * em gzip se o cliente aceitar e a resposta for grande; a resposta em
+     * gzip tem ETag própria, e If-None-Match aceita as duas. Requisições
+     * condicionais (If-None-Match ou If-Modified-Since) de tópicos fora do
+     * cache de respostas consultam a versão no cache de dados de tópicos e
+     * recebem 304 se ele não mudou.
      *
-     * @param id o ID do tópico
-     * @return ResponseEntity com status 200 e os dados do tópico, ou 404 se não
-     *         encontrado
+     * @param id      o ID do tópico
+     * @param request a requisição web, com os cabeçalhos condicionais
+     * @return ResponseEntity com status 200 e os dados do tópico, 304 se não
+     *         modificado, ou 404 se não encontrado
      */
     @GetMapping("/{id}")
-    public ResponseEntity<DetalhesTopicoDto> obterTopico(@PathVariable Long id) {
+    public ResponseEntity<byte[]> obterTopico(@PathVariable Long id, WebRequest request) {
         log.info("Requisição GET /topicos/{} recebida", id);
 
-        DetalhesTopicoDto topico = topicoService.obterTopicoById(id);
+        DetalhesSerializados topico = cacheDetalhesTopicos.obterSeEmCache(id);
+
+        if (topico == null && (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null)) {
+
+            VersaoTopicoDto versao = leiturasCompartilhadas.obterVersaoTopico(id);
+            if (naoModificado(request, id, versao.versao(), versao.dataAtualizacao())) {
+                return null;
+            }
+        }
+
+        if (topico == null) {
+            topico = cacheDetalhesTopicos.carregar(id);
+        }
 
-        return ResponseEntity.ok(topico);
+        if (naoModificado(request, topico.id(), topico.versao(), topico.dataAtualizacao())) {
+            return null;
+        }
+
+        boolean gzip = topico.gzip() != null && aceitaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(gzip
+                        ? EtagTopicos.deTopicoGzip(topico.id(), topico.versao())
+                        : EtagTopicos.deTopico(topico.id(), topico.versao()))
+                .lastModified(EtagTopicos.emMilissegundos(topico.dataAtualizacao()))
+                .cacheControl(EtagTopicos.CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (gzip) {
+            return resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(topico.gzip());
+        }
+        return resposta.body(topico.json());
     }
 
     /**
      * PUT /topicos/{id}
      * Atualiza um tópico existente.
      * Permite atualizar: título, mensagem e status.
+     * Com If-Match, a atualização só é aplicada se o tópico ainda estiver na
+     * versão informada.
      *
-     * @param id  o ID do tópico a ser atualizado
-     * @param dto os novos dados do tópico
-     * @return ResponseEntity com status 200 e os dados atualizados, ou 404 se não
-     *         encontrado
+     * @param id      o ID do tópico a ser atualizado
+     * @param dto     os novos dados do tópico
+     * @param ifMatch a ETag esperada do tópico (opcional)
+     * @return ResponseEntity com status 200 e os dados atualizados, 404 se não
+     *         encontrado, ou 412 se a ETag não corresponder
      */
     @PutMapping("/{id}")
     public ResponseEntity<DetalhesTopicoDto> atualizarTopico(
             @PathVariable Long id,
-            @Valid @RequestBody AtualizacaoTopicoDto dto) {
+            @Valid @RequestBody AtualizacaoTopicoDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         log.info("Requisição PUT /topicos/{} recebida", id);
 
-        DetalhesTopicoDto topicoAtualizado = topicoService.atualizarTopico(id, dto);
+        Long versaoEsperada = null;
+        if (ifMatch != null) {
+            // Versão do cache; se divergir, é confirmada no banco antes do 412
+            VersaoTopicoDto versao = topicoService.obterVersaoTopico(id);
+            if (!EtagTopicos.corresponde(ifMatch, id, versao.versao())) {
+                versao = topicoService.recarregarVersaoTopico(id);
+            }
+            if (!EtagTopicos.corresponde(ifMatch, id, versao.versao())) {
+                throw new VersaoTopicoDesatualizadaException(
+                        "O tópico foi alterado desde a versão informada em If-Match");
+            }
+            versaoEsperada = versao.versao();
+        }
+
+        DetalhesTopicoDto topicoAtualizado = topicoService.atualizarTopico(id, dto, versaoEsperada);
 
-        return ResponseEntity.ok(topicoAtualizado);
+        return ResponseEntity.ok()
+                .eTag(EtagTopicos.deTopico(topicoAtualizado.id(), topicoAtualizado.versao()))
+                .body(topicoAtualizado);
+    }
+
+    /**
+     * PATCH /topicos/{id}
+     * Atualiza apenas os campos informados (título, mensagem e status) com um
+     * único UPDATE condicionado à versão da ETag enviada em If-Match.
+     *
+     * @param id      o ID do tópico a ser atualizado
+     * @param dto     os campos a alterar
+     * @param ifMatch a ETag atual do tópico
+     * @return ResponseEntity com status 200 e os dados atualizados, 404 se não
+     *         encontrado, 409 se o tópico estiver em outra versão, ou 428 se
+     *         If-Match estiver ausente
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<DetalhesTopicoDto> atualizarTopicoParcialmente(
+            @PathVariable Long id,
+            @Valid @RequestBody AtualizacaoTopicoDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        log.info("Requisição PATCH /topicos/{} recebida", id);
+
+        Long versaoEsperada = EtagTopicos.versaoDe(ifMatch, id);
+        if (versaoEsperada == null) {
+            throw new VersaoTopicoObrigatoriaException(
+                    "Informe em If-Match a ETag atual do tópico, obtida em GET /topicos/" + id);
+        }
+
+        DetalhesTopicoDto topicoAtualizado = topicoService.atualizarTopicoParcialmente(id, dto, versaoEsperada);
+
+        return ResponseEntity.ok()
+                .eTag(EtagTopicos.deTopico(topicoAtualizado.id(), topicoAtualizado.versao()))
+                .body(topicoAtualizado);
     }
 
     /**
@@ -121,4 +471,38 @@ public class TopicoController {
 
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Avalia a requisição condicional contra a versão atual do tópico. Com
+     * If-None-Match, a ETag correspondente (com ou sem gzip) é a devolvida no
+     * 304 e If-Modified-Since é ignorado.
+     *
+     * @return true se a resposta 304 já foi preparada
+     */
+    private static boolean naoModificado(WebRequest request, Long id, Long versao, LocalDateTime dataAtualizacao) {
+        long ultimaAlteracao = EtagTopicos.emMilissegundos(dataAtualizacao);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return request.checkNotModified(ultimaAlteracao);
+        }
+
+        String etag = EtagTopicos.correspondenteNaoModificado(ifNoneMatch, id, versao);
+        return etag != null && request.checkNotModified(etag, ultimaAlteracao);
+    }
+
+    /**
+     * @return true se o cabeçalho Accept-Encoding aceitar gzip (sem q=0)
+     */
+    private static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacao : acceptEncoding.split(",")) {
+            String[] partes = codificacao.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
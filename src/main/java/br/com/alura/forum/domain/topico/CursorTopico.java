@@ -0,0 +1,78 @@
+package br.com.alura.forum.domain.topico;
+
+import br.com.alura.forum.exception.CursorInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de navegação na listagem por cursor (keyset) de tópicos.
+ * A ordenação é sempre (dataCriacao DESC, id DESC); o cursor guarda a chave
+ * do último (ou primeiro) item visto e a direção da navegação.
+ *
+ * O valor enviado ao cliente é opaco: Base64 URL-safe de "direcao|data|id".
+ */
+public record CursorTopico(
+        LocalDateTime dataCriacao,
+        Long id,
+        boolean anterior) {
+
+    private static final String PROXIMO = "P";
+    private static final String ANTERIOR = "A";
+
+    /**
+     * Cria o cursor que aponta para os itens seguintes (mais antigos) ao tópico
+     * informado.
+     */
+    public static CursorTopico proximo(LocalDateTime dataCriacao, Long id) {
+        return new CursorTopico(dataCriacao, id, false);
+    }
+
+    /**
+     * Cria o cursor que aponta para os itens anteriores (mais recentes) ao
+     * tópico informado.
+     */
+    public static CursorTopico anterior(LocalDateTime dataCriacao, Long id) {
+        return new CursorTopico(dataCriacao, id, true);
+    }
+
+    /**
+     * Codifica o cursor no formato opaco enviado ao cliente.
+     *
+     * @return o cursor codificado
+     */
+    public String codificar() {
+        String valor = (anterior ? ANTERIOR : PROXIMO) + "|" + dataCriacao + "|" + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor recebido do cliente.
+     *
+     * @param valor o cursor codificado
+     * @return o cursor decodificado
+     * @throws CursorInvalidoException se o valor não for um cursor válido
+     */
+    public static CursorTopico decodificar(String valor) {
+        try {
+            String decodificado = new String(Base64.getUrlDecoder().decode(valor), StandardCharsets.UTF_8);
+            String[] partes = decodificado.split("\\|");
+
+            if (partes.length != 3 || !(PROXIMO.equals(partes[0]) || ANTERIOR.equals(partes[0]))) {
+                throw new CursorInvalidoException("Cursor de paginação inválido");
+            }
+
+            return new CursorTopico(
+                    LocalDateTime.parse(partes[1]),
+                    Long.valueOf(partes[2]),
+                    ANTERIOR.equals(partes[0]));
+
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new CursorInvalidoException("Cursor de paginação inválido", e);
+        }
+    }
+}
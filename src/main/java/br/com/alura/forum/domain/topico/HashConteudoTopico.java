@@ -0,0 +1,36 @@
+package br.com.alura.forum.domain.topico;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Cálculo do hash de conteúdo de um tópico.
+ * Deve produzir exatamente o mesmo valor da coluna gerada hash_conteudo:
+ * SHA-256, em hexadecimal minúsculo, dos bytes UTF-8 de titulo + '\0' +
+ * mensagem.
+ */
+public final class HashConteudoTopico {
+
+    private HashConteudoTopico() {
+    }
+
+    /**
+     * Calcula o hash de conteúdo para o título e a mensagem informados.
+     *
+     * @param titulo   o título do tópico
+     * @param mensagem a mensagem do tópico
+     * @return o hash SHA-256 em hexadecimal (64 caracteres)
+     */
+    public static String calcular(String titulo, String mensagem) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((titulo + '\0' + mensagem).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível na JVM", e);
+        }
+    }
+}
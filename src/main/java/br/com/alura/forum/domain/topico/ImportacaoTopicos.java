@@ -0,0 +1,53 @@
+package br.com.alura.forum.domain.topico;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa o ponto de controle de uma importação de tópicos.
+ *
+ * O ID é escolhido pelo cliente e identifica a importação ao ser retomada.
+ * linhasProcessadas é a última linha do arquivo cujo chunk foi confirmado.
+ * execucao identifica a execução que detém a importação enquanto ela está em
+ * andamento; atualizada_em, renovada a cada chunk, é o prazo dessa reserva.
+ */
+@Entity
+@Table(name = "importacoes_topicos")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportacaoTopicos {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SituacaoImportacao situacao;
+
+    @Column(name = "linhas_processadas", nullable = false)
+    private long linhasProcessadas;
+
+    @Column(nullable = false)
+    private long criados;
+
+    @Column(nullable = false)
+    private long rejeitados;
+
+    @Column(length = 36)
+    private String execucao;
+
+    @Column(length = 100)
+    private String usuario;
+
+    @Column(name = "iniciada_em", nullable = false, updatable = false)
+    private LocalDateTime iniciadaEm;
+
+    @Column(name = "atualizada_em", nullable = false)
+    private LocalDateTime atualizadaEm;
+}
@@ -0,0 +1,32 @@
+package br.com.alura.forum.domain.topico;
+
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.event.TipoAlteracaoTopico;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de auditoria de uma alteração de tópico, a ser gravado em
+ * topicos_auditoria.
+ *
+ * @param topicoId         o ID do tópico alterado
+ * @param acao             o tipo de alteração
+ * @param dadosAnteriores  os dados antes da alteração (null na criação)
+ * @param dadosNovos       os dados após a alteração (null na remoção)
+ * @param usuario          o login do usuário autenticado, se houver
+ * @param dataModificacao  o momento da alteração
+ */
+public record RegistroAuditoriaTopico(
+        Long topicoId,
+        TipoAlteracaoTopico acao,
+        DetalhesTopicoDto dadosAnteriores,
+        DetalhesTopicoDto dadosNovos,
+        String usuario,
+        LocalDateTime dataModificacao) {
+
+    public static RegistroAuditoriaTopico of(TopicoAlteradoEvent evento, String usuario) {
+        return new RegistroAuditoriaTopico(
+                evento.id(), evento.tipo(), evento.anterior(), evento.atual(), usuario, LocalDateTime.now());
+    }
+}
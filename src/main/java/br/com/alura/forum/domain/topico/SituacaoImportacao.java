@@ -0,0 +1,10 @@
+package br.com.alura.forum.domain.topico;
+
+/**
+ * Situação de uma importação de tópicos em NDJSON.
+ */
+public enum SituacaoImportacao {
+    EM_ANDAMENTO,
+    CONCLUIDA,
+    INTERROMPIDA
+}
@@ -6,6 +6,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 import java.time.LocalDateTime;
 
@@ -15,7 +17,7 @@ import java.time.LocalDateTime;
  * específico.
  */
 @Entity
-@Table(name = "topicos")
+@Table(name = "topicos", uniqueConstraints = @UniqueConstraint(name = "uk_topicos_hash_conteudo", columnNames = "hash_conteudo"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -46,6 +48,33 @@ public class Topico {
     @Column(nullable = false, length = 100)
     private String curso;
 
+    /**
+     * Hash SHA-256 de título + mensagem, calculado pelo banco (coluna gerada).
+     * O columnDefinition só é usado quando o schema é gerado pelo Hibernate
+     * (H2); no MySQL a coluna é criada pela migração V3.
+     */
+    @Column(name = "hash_conteudo", insertable = false, updatable = false,
+            columnDefinition = "CHAR(64) GENERATED ALWAYS AS "
+                    + "(LOWER(RAWTOHEX(HASH('SHA-256', CONCAT(titulo, CHAR(0), mensagem)))))")
+    private String hashConteudo;
+
+    /**
+     * Versão do tópico, incrementada a cada atualização. Usada nas ETags e no
+     * controle de concorrência otimista.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    /**
+     * Data da última alteração, mantida pelo banco (ON UPDATE) e relida após
+     * cada inserção ou atualização.
+     */
+    @Generated(event = { EventType.INSERT, EventType.UPDATE })
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP")
+    private LocalDateTime dataAtualizacao;
+
     /**
      * Construtor para criar um novo tópico com dados básicos.
      */
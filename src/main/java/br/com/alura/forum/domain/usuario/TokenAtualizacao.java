@@ -0,0 +1,61 @@
+package br.com.alura.forum.domain.usuario;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa um token de atualização (refresh token) emitido no
+ * login. Armazena apenas o hash SHA-256 do token.
+ *
+ * Os tokens de uma mesma sessão compartilham a família; ao ser usado, o token
+ * é marcado como substituído e um novo token da mesma família é emitido.
+ */
+@Entity
+@Table(name = "tokens_atualizacao")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TokenAtualizacao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String hash;
+
+    @Column(nullable = false, length = 36)
+    private String familia;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    @Column(name = "substituido_em")
+    private LocalDateTime substituidoEm;
+
+    @Column(nullable = false)
+    private boolean revogado;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime dataCriacao;
+
+    public TokenAtualizacao(String hash, String familia, Usuario usuario, LocalDateTime expiraEm) {
+        this.hash = hash;
+        this.familia = familia;
+        this.usuario = usuario;
+        this.expiraEm = expiraEm;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.dataCriacao = LocalDateTime.now();
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.alura.forum.domain.usuario;
 
+import br.com.alura.forum.security.InvalidacaoCachePrincipais;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -18,6 +19,7 @@ import java.util.Collections;
  */
 @Entity
 @Table(name = "usuarios")
+@EntityListeners(InvalidacaoCachePrincipais.class)
 @Getter
 @Setter
 @NoArgsConstructor
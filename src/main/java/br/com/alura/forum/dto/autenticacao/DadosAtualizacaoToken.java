@@ -0,0 +1,11 @@
+package br.com.alura.forum.dto.autenticacao;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO que recebe o token de atualização.
+ * Utilizado no endpoint POST /login/atualizar.
+ */
+public record DadosAtualizacaoToken(
+        @NotBlank(message = "Token de atualização é obrigatório") String tokenAtualizacao) {
+}
@@ -2,18 +2,20 @@ package br.com.alura.forum.dto.autenticacao;
 
 /**
  * DTO que retorna o token JWT após autenticação bem-sucedida.
- * Utilizado na resposta do endpoint POST /login.
+ * Utilizado na resposta dos endpoints POST /login e POST /login/atualizar.
  */
 public record DadosTokenJWT(
         String token,
-        String tipo) {
+        String tipo,
+        String tokenAtualizacao) {
     /**
      * Construtor conveniente que define o tipo como Bearer.
      *
-     * @param token o token JWT
+     * @param token            o token JWT
+     * @param tokenAtualizacao o token de atualização, para renovar o token JWT
      * @return uma nova instância de DadosTokenJWT
      */
-    public static DadosTokenJWT bearer(String token) {
-        return new DadosTokenJWT(token, "Bearer");
+    public static DadosTokenJWT bearer(String token, String tokenAtualizacao) {
+        return new DadosTokenJWT(token, "Bearer", tokenAtualizacao);
     }
 }
@@ -0,0 +1,20 @@
+package br.com.alura.forum.dto.paginacao;
+
+import java.util.List;
+
+/**
+ * DTO de resposta para listagens paginadas por cursor (keyset).
+ * Não informa total de elementos nem de páginas, pois não executa COUNT.
+ *
+ * @param conteudo       os itens da página
+ * @param tamanho        a quantidade de itens retornados
+ * @param proximoCursor  cursor para a próxima página, ou null se for a última
+ * @param cursorAnterior cursor para a página anterior, ou null se for a
+ *                       primeira
+ */
+public record PaginaCursorDto<T>(
+        List<T> conteudo,
+        int tamanho,
+        String proximoCursor,
+        String cursorAnterior) {
+}
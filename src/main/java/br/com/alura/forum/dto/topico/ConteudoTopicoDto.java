@@ -0,0 +1,10 @@
+package br.com.alura.forum.dto.topico;
+
+/**
+ * DTO com o conteúdo textual de um tópico, usado para indexação.
+ */
+public record ConteudoTopicoDto(
+        Long id,
+        String titulo,
+        String mensagem) {
+}
@@ -16,7 +16,9 @@ public record DetalhesTopicoDto(
         LocalDateTime dataCriacao,
         StatusTopico status,
         String autor,
-        String curso) {
+        String curso,
+        LocalDateTime dataAtualizacao,
+        Long versao) {
     /**
      * Construtor factory que cria um DetalhesTopicoDto a partir de uma entidade
      * Topico.
@@ -32,6 +34,8 @@ public record DetalhesTopicoDto(
                 topico.getDataCriacao(),
                 topico.getStatus(),
                 topico.getAutor(),
-                topico.getCurso());
+                topico.getCurso(),
+                topico.getDataAtualizacao(),
+                topico.getVersao());
     }
 }
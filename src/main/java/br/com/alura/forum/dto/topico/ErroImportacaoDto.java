@@ -0,0 +1,21 @@
+package br.com.alura.forum.dto.topico;
+
+import br.com.alura.forum.dto.exception.CampoErroDto;
+
+import java.util.List;
+
+/**
+ * Linha rejeitada de uma importação de tópicos, gravada no arquivo de erros.
+ *
+ * @param linha    o número da linha no arquivo importado (a partir de 1)
+ * @param situacao INVALIDO ou DUPLICADO
+ * @param erros    os erros de leitura, validação ou duplicidade
+ * @param conteudo o conteúdo original da linha, ou null se excedeu o
+ *                 tamanho máximo
+ */
+public record ErroImportacaoDto(
+        long linha,
+        SituacaoItemLote situacao,
+        List<CampoErroDto> erros,
+        String conteudo) {
+}
@@ -0,0 +1,22 @@
+package br.com.alura.forum.dto.topico;
+
+import br.com.alura.forum.domain.topico.StatusTopico;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO de resposta de GET /topicos/estatisticas.
+ *
+ * @param total          a quantidade total de tópicos
+ * @param porCurso       a quantidade de tópicos de cada curso, em ordem
+ *                       alfabética
+ * @param porStatus      a quantidade de tópicos de cada status
+ * @param reconciliadoEm a última conferência dos contadores com o banco
+ */
+public record EstatisticasTopicosDto(
+        long total,
+        Map<String, Long> porCurso,
+        Map<StatusTopico, Long> porStatus,
+        LocalDateTime reconciliadoEm) {
+}
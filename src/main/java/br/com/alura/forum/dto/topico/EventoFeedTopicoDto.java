@@ -0,0 +1,21 @@
+package br.com.alura.forum.dto.topico;
+
+import br.com.alura.forum.event.TipoAlteracaoTopico;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
+
+/**
+ * Dados de um evento de GET /topicos/stream.
+ *
+ * @param tipo   o tipo de alteração
+ * @param id     o ID do tópico
+ * @param topico os dados do tópico após a alteração (null na remoção)
+ */
+public record EventoFeedTopicoDto(
+        TipoAlteracaoTopico tipo,
+        Long id,
+        DetalhesTopicoDto topico) {
+
+    public static EventoFeedTopicoDto of(TopicoAlteradoEvent evento) {
+        return new EventoFeedTopicoDto(evento.tipo(), evento.id(), evento.atual());
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.alura.forum.dto.topico;
+
+import br.com.alura.forum.domain.topico.StatusTopico;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com os filtros opcionais da listagem de tópicos.
+ * Recebido como parâmetros de consulta em GET /topicos e GET /topicos/cursor.
+ * Campos nulos não são aplicados.
+ *
+ * @param curso  o curso exato do tópico
+ * @param status o status do tópico
+ * @param autor  o autor exato do tópico
+ * @param de     data de criação mínima (inclusive), ISO-8601
+ * @param ate    data de criação máxima (inclusive), ISO-8601
+ */
+public record FiltroTopicosDto(
+        String curso,
+        StatusTopico status,
+        String autor,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) {
+
+    /**
+     * Filtro vazio, que não restringe a listagem.
+     */
+    public static FiltroTopicosDto vazio() {
+        return new FiltroTopicosDto(null, null, null, null, null);
+    }
+}
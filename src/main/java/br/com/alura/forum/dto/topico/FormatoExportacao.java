@@ -0,0 +1,52 @@
+package br.com.alura.forum.dto.topico;
+
+import br.com.alura.forum.exception.FormatoExportacaoInvalidoException;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Formatos aceitos por GET /topicos/export.
+ */
+public enum FormatoExportacao {
+
+    /** Um objeto JSON por linha (newline-delimited JSON). */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** Valores separados por vírgula, com cabeçalho (RFC 4180). */
+    CSV("text/csv", "csv");
+
+    private final String tipoConteudo;
+    private final String extensao;
+
+    FormatoExportacao(String tipoConteudo, String extensao) {
+        this.tipoConteudo = tipoConteudo;
+        this.extensao = extensao;
+    }
+
+    public String getTipoConteudo() {
+        return tipoConteudo;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    /**
+     * Converte o parâmetro formato da requisição, sem diferenciar maiúsculas.
+     *
+     * @param formato o nome do formato
+     * @return o formato correspondente
+     * @throws FormatoExportacaoInvalidoException se o formato não for aceito
+     */
+    public static FormatoExportacao de(String formato) {
+        return Arrays.stream(values())
+                .filter(f -> f.extensao.equals(formato.toLowerCase(Locale.ROOT)))
+                .findFirst()
+                .orElseThrow(() -> new FormatoExportacaoInvalidoException(
+                        "Formato de exportação inválido: " + formato + ". Use " + Arrays.stream(values())
+                                .map(f -> f.extensao)
+                                .collect(Collectors.joining(" ou "))));
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.alura.forum.dto.topico;
+
+import br.com.alura.forum.domain.topico.ImportacaoTopicos;
+import br.com.alura.forum.domain.topico.SituacaoImportacao;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com o progresso de uma importação de tópicos em NDJSON.
+ *
+ * @param id                o ID da importação
+ * @param situacao          a situação da importação
+ * @param linhasProcessadas a última linha do arquivo já confirmada
+ * @param criados           a quantidade de tópicos criados
+ * @param rejeitados        a quantidade de linhas inválidas ou duplicadas
+ * @param iniciadaEm        o início da importação
+ * @param atualizadaEm      a última atualização do progresso
+ */
+public record ImportacaoTopicosDto(
+        String id,
+        SituacaoImportacao situacao,
+        long linhasProcessadas,
+        long criados,
+        long rejeitados,
+        LocalDateTime iniciadaEm,
+        LocalDateTime atualizadaEm) {
+
+    /**
+     * Construtor factory para criar um DTO a partir da entidade.
+     *
+     * @param importacao a entidade ImportacaoTopicos
+     * @return uma nova instância de ImportacaoTopicosDto
+     */
+    public static ImportacaoTopicosDto fromImportacao(ImportacaoTopicos importacao) {
+        return new ImportacaoTopicosDto(
+                importacao.getId(),
+                importacao.getSituacao(),
+                importacao.getLinhasProcessadas(),
+                importacao.getCriados(),
+                importacao.getRejeitados(),
+                importacao.getIniciadaEm(),
+                importacao.getAtualizadaEm());
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.alura.forum.dto.topico;
+
+import br.com.alura.forum.dto.exception.CampoErroDto;
+
+import java.util.List;
+
+/**
+ * DTO com o resultado de um item da criação de tópicos em lote.
+ *
+ * @param indice   a posição do item na requisição (a partir de 0)
+ * @param situacao a situação final do item
+ * @param id       o ID do tópico criado, ou null se não foi criado
+ * @param erros    os erros de validação ou duplicidade, se houver
+ */
+public record ItemLoteDto(
+        int indice,
+        SituacaoItemLote situacao,
+        Long id,
+        List<CampoErroDto> erros) {
+
+    public static ItemLoteDto criado(int indice, Long id) {
+        return new ItemLoteDto(indice, SituacaoItemLote.CRIADO, id, null);
+    }
+
+    public static ItemLoteDto invalido(int indice, List<CampoErroDto> erros) {
+        return new ItemLoteDto(indice, SituacaoItemLote.INVALIDO, null, erros);
+    }
+
+    public static ItemLoteDto duplicado(int indice, String mensagem) {
+        return new ItemLoteDto(indice, SituacaoItemLote.DUPLICADO, null,
+                List.of(new CampoErroDto("titulo", mensagem)));
+    }
+}
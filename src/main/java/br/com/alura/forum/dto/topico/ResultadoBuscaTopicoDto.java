@@ -0,0 +1,39 @@
+package br.com.alura.forum.dto.topico;
+
+import br.com.alura.forum.domain.topico.StatusTopico;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de um resultado da busca textual de tópicos.
+ * Contém o resumo do tópico e a relevância calculada para a consulta.
+ */
+public record ResultadoBuscaTopicoDto(
+        Long id,
+        String titulo,
+        StatusTopico status,
+        String autor,
+        String curso,
+        LocalDateTime dataCriacao,
+        String resumo,
+        double relevancia) {
+
+    /**
+     * Construtor factory que combina o resumo do tópico com a relevância.
+     *
+     * @param resumo     o resumo do tópico
+     * @param relevancia a relevância do tópico para a consulta
+     * @return uma nova instância de ResultadoBuscaTopicoDto
+     */
+    public static ResultadoBuscaTopicoDto of(ResumoTopicoDto resumo, double relevancia) {
+        return new ResultadoBuscaTopicoDto(
+                resumo.id(),
+                resumo.titulo(),
+                resumo.status(),
+                resumo.autor(),
+                resumo.curso(),
+                resumo.dataCriacao(),
+                resumo.resumo(),
+                relevancia);
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.alura.forum.dto.topico;
+
+import java.util.List;
+
+/**
+ * DTO de resposta da criação de tópicos em lote (POST /topicos/lote).
+ *
+ * @param total      a quantidade de itens recebidos
+ * @param criados    a quantidade de tópicos criados
+ * @param rejeitados a quantidade de itens inválidos ou duplicados
+ * @param itens      o resultado de cada item, na ordem da requisição
+ */
+public record ResultadoLoteDto(
+        int total,
+        int criados,
+        int rejeitados,
+        List<ItemLoteDto> itens) {
+
+    /**
+     * Construtor factory que calcula os totais a partir dos itens.
+     *
+     * @param itens o resultado de cada item
+     * @return uma nova instância de ResultadoLoteDto
+     */
+    public static ResultadoLoteDto of(List<ItemLoteDto> itens) {
+        int criados = (int) itens.stream()
+                .filter(i -> i.situacao() == SituacaoItemLote.CRIADO)
+                .count();
+        return new ResultadoLoteDto(itens.size(), criados, itens.size() - criados, itens);
+    }
+}
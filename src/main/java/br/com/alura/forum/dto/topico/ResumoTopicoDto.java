@@ -0,0 +1,27 @@
+package br.com.alura.forum.dto.topico;
+
+import br.com.alura.forum.domain.topico.StatusTopico;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de resumo de um tópico, usado nas listagens.
+ * Não carrega a mensagem completa, apenas um trecho inicial; o conteúdo
+ * integral é obtido em GET /topicos/{id}.
+ *
+ * Preenchido diretamente pelas consultas do TopicoRepository, sem hidratar a
+ * entidade Topico.
+ */
+public record ResumoTopicoDto(
+        Long id,
+        String titulo,
+        StatusTopico status,
+        String autor,
+        String curso,
+        LocalDateTime dataCriacao,
+        String resumo,
+        Long versao) {
+
+    /** Quantidade máxima de caracteres da mensagem incluídos no resumo. */
+    public static final int TAMANHO_RESUMO = 200;
+}
@@ -0,0 +1,10 @@
+package br.com.alura.forum.dto.topico;
+
+/**
+ * Situação final de cada item de uma criação de tópicos em lote.
+ */
+public enum SituacaoItemLote {
+    CRIADO,
+    INVALIDO,
+    DUPLICADO
+}
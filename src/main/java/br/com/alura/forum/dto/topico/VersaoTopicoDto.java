@@ -0,0 +1,21 @@
+package br.com.alura.forum.dto.topico;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com a versão atual de um tópico, usado nas requisições condicionais
+ * (If-None-Match, If-Modified-Since e If-Match) sem carregar o tópico inteiro.
+ *
+ * @param id              o ID do tópico
+ * @param versao          a versão do tópico
+ * @param dataAtualizacao a data da última alteração
+ */
+public record VersaoTopicoDto(
+        Long id,
+        Long versao,
+        LocalDateTime dataAtualizacao) {
+
+    public static VersaoTopicoDto fromDetalhes(DetalhesTopicoDto detalhes) {
+        return new VersaoTopicoDto(detalhes.id(), detalhes.versao(), detalhes.dataAtualizacao());
+    }
+}
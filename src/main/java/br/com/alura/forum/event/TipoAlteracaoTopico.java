@@ -0,0 +1,12 @@
+package br.com.alura.forum.event;
+
+/**
+ * Tipos de alteração de um tópico publicados em {@link TopicoAlteradoEvent}.
+ */
+public enum TipoAlteracaoTopico {
+    CRIADO,
+    ATUALIZADO,
+    REMOVIDO,
+    /** Movido para o arquivo: continua disponível em GET /topicos/{id}, somente leitura. */
+    ARQUIVADO
+}
@@ -0,0 +1,37 @@
+package br.com.alura.forum.event;
+
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+
+/**
+ * Evento publicado pelo TopicoService a cada criação, atualização ou remoção de
+ * um tópico. Os interessados (índices, caches, contadores) devem ouvi-lo com
+ * {@code @TransactionalEventListener}, para reagir somente após o commit.
+ *
+ * @param tipo     o tipo de alteração
+ * @param id       o ID do tópico
+ * @param anterior os dados antes da alteração (null na criação)
+ * @param atual    os dados após a alteração (null na remoção e no
+ *                 arquivamento)
+ */
+public record TopicoAlteradoEvent(
+        TipoAlteracaoTopico tipo,
+        Long id,
+        DetalhesTopicoDto anterior,
+        DetalhesTopicoDto atual) {
+
+    public static TopicoAlteradoEvent criado(DetalhesTopicoDto atual) {
+        return new TopicoAlteradoEvent(TipoAlteracaoTopico.CRIADO, atual.id(), null, atual);
+    }
+
+    public static TopicoAlteradoEvent atualizado(DetalhesTopicoDto anterior, DetalhesTopicoDto atual) {
+        return new TopicoAlteradoEvent(TipoAlteracaoTopico.ATUALIZADO, atual.id(), anterior, atual);
+    }
+
+    public static TopicoAlteradoEvent removido(DetalhesTopicoDto anterior) {
+        return new TopicoAlteradoEvent(TipoAlteracaoTopico.REMOVIDO, anterior.id(), anterior, null);
+    }
+
+    public static TopicoAlteradoEvent arquivado(DetalhesTopicoDto anterior) {
+        return new TopicoAlteradoEvent(TipoAlteracaoTopico.ARQUIVADO, anterior.id(), anterior, null);
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.alura.forum.exception;
+
+/**
+ * Exceção lançada quando o cursor de paginação recebido não pode ser
+ * decodificado.
+ */
+public class CursorInvalidoException extends RuntimeException {
+
+    public CursorInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+
+    public CursorInvalidoException(String mensagem, Throwable causa) {
+        super(mensagem, causa);
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.alura.forum.exception;
+
+/**
+ * Exceção lançada quando GET /topicos/stream não aceita novos assinantes.
+ */
+public class FeedIndisponivelException extends RuntimeException {
+
+    public FeedIndisponivelException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.alura.forum.exception;
+
+/**
+ * Exceção lançada quando o formato solicitado em GET /topicos/export não é
+ * suportado.
+ */
+public class FormatoExportacaoInvalidoException extends RuntimeException {
+
+    public FormatoExportacaoInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+}
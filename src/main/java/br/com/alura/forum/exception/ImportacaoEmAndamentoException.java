@@ -0,0 +1,12 @@
+package br.com.alura.forum.exception;
+
+/**
+ * Exceção lançada quando uma importação de tópicos é enviada enquanto outra
+ * com o mesmo ID ainda está em andamento.
+ */
+public class ImportacaoEmAndamentoException extends RuntimeException {
+
+    public ImportacaoEmAndamentoException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.alura.forum.exception;
+
+/**
+ * Exceção lançada quando o ID informado para uma importação de tópicos é
+ * inválido.
+ */
+public class ImportacaoInvalidaException extends RuntimeException {
+
+    public ImportacaoInvalidaException(String mensagem) {
+        super(mensagem);
+    }
+}
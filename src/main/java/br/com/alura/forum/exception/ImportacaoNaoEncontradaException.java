@@ -0,0 +1,11 @@
+package br.com.alura.forum.exception;
+
+/**
+ * Exceção lançada quando uma importação de tópicos não é encontrada.
+ */
+public class ImportacaoNaoEncontradaException extends RuntimeException {
+
+    public ImportacaoNaoEncontradaException(String mensagem) {
+        super(mensagem);
+    }
+}
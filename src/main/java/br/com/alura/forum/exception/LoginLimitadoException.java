@@ -0,0 +1,23 @@
+package br.com.alura.forum.exception;
+
+/**
+ * Exceção lançada quando uma tentativa de login é recusada sem verificar a
+ * senha: limite de tentativas por login ou por IP excedido, ou verificação de
+ * senhas saturada.
+ */
+public class LoginLimitadoException extends RuntimeException {
+
+    private final long segundosParaNovaTentativa;
+
+    public LoginLimitadoException(String mensagem, long segundosParaNovaTentativa) {
+        super(mensagem);
+        this.segundosParaNovaTentativa = Math.max(1, segundosParaNovaTentativa);
+    }
+
+    /**
+     * @return os segundos a aguardar antes de tentar novamente (Retry-After)
+     */
+    public long getSegundosParaNovaTentativa() {
+        return segundosParaNovaTentativa;
+    }
+}
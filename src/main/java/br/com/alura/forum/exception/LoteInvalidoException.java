@@ -0,0 +1,16 @@
+package br.com.alura.forum.exception;
+
+/**
+ * Exceção lançada quando um lote de tópicos não pode ser processado como um
+ * todo (por exemplo, vazio ou acima do tamanho máximo).
+ */
+public class LoteInvalidoException extends RuntimeException {
+
+    public LoteInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+
+    public LoteInvalidoException(String mensagem, Throwable causa) {
+        super(mensagem, causa);
+    }
+}
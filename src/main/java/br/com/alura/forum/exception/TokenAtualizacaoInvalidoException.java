@@ -0,0 +1,12 @@
+package br.com.alura.forum.exception;
+
+/**
+ * Exceção lançada quando um token de atualização é desconhecido, expirado,
+ * revogado ou já foi substituído.
+ */
+public class TokenAtualizacaoInvalidoException extends RuntimeException {
+
+    public TokenAtualizacaoInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.alura.forum.exception;
+
+/**
+ * Exceção lançada quando a versão informada em If-Match não corresponde à
+ * versão atual do tópico.
+ */
+public class VersaoTopicoDesatualizadaException extends RuntimeException {
+
+    public VersaoTopicoDesatualizadaException(String mensagem) {
+        super(mensagem);
+    }
+
+    public VersaoTopicoDesatualizadaException(String mensagem, Throwable causa) {
+        super(mensagem, causa);
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.alura.forum.exception;
+
+/**
+ * Exceção lançada quando uma atualização que exige controle de concorrência
+ * não informa a ETag do tópico em If-Match.
+ */
+public class VersaoTopicoObrigatoriaException extends RuntimeException {
+
+    public VersaoTopicoObrigatoriaException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -2,9 +2,22 @@ package br.com.alura.forum.handler;
 
 import br.com.alura.forum.dto.exception.CampoErroDto;
 import br.com.alura.forum.dto.exception.ErroResponseDto;
+import br.com.alura.forum.exception.CursorInvalidoException;
+import br.com.alura.forum.exception.FeedIndisponivelException;
+import br.com.alura.forum.exception.FormatoExportacaoInvalidoException;
+import br.com.alura.forum.exception.ImportacaoEmAndamentoException;
+import br.com.alura.forum.exception.ImportacaoInvalidaException;
+import br.com.alura.forum.exception.ImportacaoNaoEncontradaException;
+import br.com.alura.forum.exception.LoginLimitadoException;
+import br.com.alura.forum.exception.LoteInvalidoException;
+import br.com.alura.forum.exception.TokenAtualizacaoInvalidoException;
 import br.com.alura.forum.exception.TopicoJaExisteException;
 import br.com.alura.forum.exception.TopicoNaoEncontradoException;
+import br.com.alura.forum.exception.VersaoTopicoDesatualizadaException;
+import br.com.alura.forum.exception.VersaoTopicoObrigatoriaException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -104,6 +117,301 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(resposta);
     }
 
+    /**
+     * Trata exceção quando a ETag de If-Match não corresponde à versão atual do
+     * tópico.
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 412 (Precondition Failed)
+     */
+    @ExceptionHandler(VersaoTopicoDesatualizadaException.class)
+    public ResponseEntity<ErroResponseDto> handleVersaoTopicoDesatualizada(
+            VersaoTopicoDesatualizadaException ex,
+            WebRequest request) {
+
+        log.warn("Pré-condição falhou: {}", ex.getMessage());
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(resposta);
+    }
+
+    /**
+     * Trata exceção quando a atualização exige If-Match e o cabeçalho está
+     * ausente ou não contém a ETag do tópico.
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 428 (Precondition Required)
+     */
+    @ExceptionHandler(VersaoTopicoObrigatoriaException.class)
+    public ResponseEntity<ErroResponseDto> handleVersaoTopicoObrigatoria(
+            VersaoTopicoObrigatoriaException ex,
+            WebRequest request) {
+
+        log.warn("Pré-condição ausente: {}", ex.getMessage());
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.PRECONDITION_REQUIRED.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body(resposta);
+    }
+
+    /**
+     * Trata exceção quando o tópico foi alterado por outra requisição entre a
+     * leitura e a gravação (controle de versão otimista).
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 409 (Conflict)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErroResponseDto> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex,
+            WebRequest request) {
+
+        log.warn("Conflito de versão: {}", ex.getMessage());
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.CONFLICT.value(),
+                "O tópico foi alterado por outra requisição. Recarregue e tente novamente",
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(resposta);
+    }
+
+    /**
+     * Trata exceção quando o cursor de paginação é inválido.
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 400
+     */
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ResponseEntity<ErroResponseDto> handleCursorInvalido(
+            CursorInvalidoException ex,
+            WebRequest request) {
+
+        log.warn("Cursor de paginação inválido: {}", ex.getMessage());
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.badRequest().body(resposta);
+    }
+
+    /**
+     * Trata exceção quando o formato de exportação não é suportado.
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 400
+     */
+    @ExceptionHandler(FormatoExportacaoInvalidoException.class)
+    public ResponseEntity<ErroResponseDto> handleFormatoExportacaoInvalido(
+            FormatoExportacaoInvalidoException ex,
+            WebRequest request) {
+
+        log.warn("Exportação recusada: {}", ex.getMessage());
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.badRequest().body(resposta);
+    }
+
+    /**
+     * Trata exceção quando um lote de tópicos não pode ser processado.
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 400
+     */
+    @ExceptionHandler(LoteInvalidoException.class)
+    public ResponseEntity<ErroResponseDto> handleLoteInvalido(
+            LoteInvalidoException ex,
+            WebRequest request) {
+
+        log.warn("Lote de tópicos inválido: {}", ex.getMessage());
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.badRequest().body(resposta);
+    }
+
+    /**
+     * Trata exceção quando o feed de alterações de tópicos não aceita novos
+     * assinantes.
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 503 e o cabeçalho Retry-After
+     */
+    @ExceptionHandler(FeedIndisponivelException.class)
+    public ResponseEntity<ErroResponseDto> handleFeedIndisponivel(
+            FeedIndisponivelException ex,
+            WebRequest request) {
+
+        log.warn("Assinatura do feed recusada: {}", ex.getMessage());
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(resposta);
+    }
+
+    /**
+     * Trata exceção quando o ID de uma importação de tópicos é inválido.
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 400
+     */
+    @ExceptionHandler(ImportacaoInvalidaException.class)
+    public ResponseEntity<ErroResponseDto> handleImportacaoInvalida(
+            ImportacaoInvalidaException ex,
+            WebRequest request) {
+
+        log.warn("Importação de tópicos recusada: {}", ex.getMessage());
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.badRequest().body(resposta);
+    }
+
+    /**
+     * Trata exceção quando uma importação de tópicos não é encontrada.
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 404
+     */
+    @ExceptionHandler(ImportacaoNaoEncontradaException.class)
+    public ResponseEntity<ErroResponseDto> handleImportacaoNaoEncontrada(
+            ImportacaoNaoEncontradaException ex,
+            WebRequest request) {
+
+        log.warn("Recurso não encontrado: {}", ex.getMessage());
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.NOT_FOUND.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(resposta);
+    }
+
+    /**
+     * Trata exceção quando uma importação de tópicos já está em andamento.
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 409 (Conflict)
+     */
+    @ExceptionHandler(ImportacaoEmAndamentoException.class)
+    public ResponseEntity<ErroResponseDto> handleImportacaoEmAndamento(
+            ImportacaoEmAndamentoException ex,
+            WebRequest request) {
+
+        log.warn("Conflito ao importar tópicos: {}", ex.getMessage());
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(resposta);
+    }
+
+    /**
+     * Trata exceção quando uma tentativa de login é recusada por limite de
+     * tentativas ou por saturação da verificação de senhas.
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 429 e o cabeçalho Retry-After
+     */
+    @ExceptionHandler(LoginLimitadoException.class)
+    public ResponseEntity<ErroResponseDto> handleLoginLimitado(
+            LoginLimitadoException ex,
+            WebRequest request) {
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getSegundosParaNovaTentativa()))
+                .body(resposta);
+    }
+
+    /**
+     * Trata exceção quando o token de atualização não pode ser usado.
+     *
+     * @param ex      a exceção
+     * @param request a requisição web
+     * @return ResponseEntity com status 401
+     */
+    @ExceptionHandler(TokenAtualizacaoInvalidoException.class)
+    public ResponseEntity<ErroResponseDto> handleTokenAtualizacaoInvalido(
+            TokenAtualizacaoInvalidoException ex,
+            WebRequest request) {
+
+        log.warn("Token de atualização recusado: {}", ex.getMessage());
+
+        ErroResponseDto resposta = new ErroResponseDto(
+                HttpStatus.UNAUTHORIZED.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", ""),
+                null);
+
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(resposta);
+    }
+
     /**
      * Trata exceções genéricas não capturadas.
      *
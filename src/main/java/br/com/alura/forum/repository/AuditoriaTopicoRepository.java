@@ -0,0 +1,62 @@
+package br.com.alura.forum.repository;
+
+import br.com.alura.forum.domain.topico.RegistroAuditoriaTopico;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Gravação dos registros de auditoria de tópicos em lotes JDBC.
+ *
+ * Os dados anteriores e novos são gravados como JSON nas colunas
+ * dados_anteriores e dados_novos.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditoriaTopicoRepository {
+
+    private static final String INSERT = "INSERT INTO topicos_auditoria "
+            + "(topico_id, acao, dados_anteriores, dados_novos, usuario, data_modificacao) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Insere os registros em um único lote JDBC.
+     *
+     * @param registros os registros a inserir
+     * @throws DataAccessException se o lote não puder ser gravado
+     */
+    public void inserir(List<RegistroAuditoriaTopico> registros) {
+        if (registros.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT, registros, registros.size(), (ps, registro) -> {
+            ps.setLong(1, registro.topicoId());
+            ps.setString(2, registro.acao().name());
+            ps.setString(3, paraJson(registro.dadosAnteriores()));
+            ps.setString(4, paraJson(registro.dadosNovos()));
+            ps.setString(5, registro.usuario());
+            ps.setTimestamp(6, Timestamp.valueOf(registro.dataModificacao()));
+        });
+    }
+
+    private String paraJson(Object dados) {
+        if (dados == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar dados de auditoria", e);
+        }
+    }
+}
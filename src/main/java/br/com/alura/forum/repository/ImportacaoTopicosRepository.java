@@ -0,0 +1,101 @@
+package br.com.alura.forum.repository;
+
+import br.com.alura.forum.domain.topico.ImportacaoTopicos;
+import br.com.alura.forum.domain.topico.SituacaoImportacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository para os pontos de controle das importações de tópicos.
+ */
+@Repository
+public interface ImportacaoTopicosRepository extends JpaRepository<ImportacaoTopicos, String> {
+
+    /**
+     * Cria a importação em andamento, já reservada para a execução. Se outra
+     * instância criar o mesmo ID ao mesmo tempo, a chave primária recusa a
+     * inserção.
+     *
+     * @param id       o ID da importação
+     * @param execucao o identificador da execução
+     * @param usuario  o usuário autenticado, se houver
+     * @param agora    o instante da criação
+     * @return a quantidade de registros inseridos
+     */
+    @Modifying
+    @Query(value = "INSERT INTO importacoes_topicos (id, situacao, linhas_processadas, criados, rejeitados, " +
+            "execucao, usuario, iniciada_em, atualizada_em) " +
+            "VALUES (:id, 'EM_ANDAMENTO', 0, 0, 0, :execucao, :usuario, :agora, :agora)",
+            nativeQuery = true)
+    int criar(@Param("id") String id,
+              @Param("execucao") String execucao,
+              @Param("usuario") String usuario,
+              @Param("agora") LocalDateTime agora);
+
+    /**
+     * Reserva uma importação existente para a execução, se ela não estiver em
+     * andamento ou se a reserva anterior tiver expirado (sem chunks
+     * confirmados desde o limite).
+     *
+     * @param id       o ID da importação
+     * @param execucao o identificador da execução
+     * @param situacao a situação em andamento (EM_ANDAMENTO)
+     * @param agora    o instante da reserva
+     * @param limite   o instante antes do qual a reserva anterior expirou
+     * @return 1 se a reserva foi obtida, 0 caso contrário
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ImportacaoTopicos i SET i.situacao = :situacao, i.execucao = :execucao, i.atualizadaEm = :agora " +
+            "WHERE i.id = :id AND (i.situacao <> :situacao OR i.atualizadaEm < :limite)")
+    int reservar(@Param("id") String id,
+                 @Param("execucao") String execucao,
+                 @Param("situacao") SituacaoImportacao situacao,
+                 @Param("agora") LocalDateTime agora,
+                 @Param("limite") LocalDateTime limite);
+
+    /**
+     * Registra um chunk confirmado e renova a reserva. Deve ser executado na
+     * mesma transação da inserção dos tópicos do chunk.
+     *
+     * @param id         o ID da importação
+     * @param execucao   o identificador da execução que detém a reserva
+     * @param linha      a última linha do chunk
+     * @param criados    os tópicos criados no chunk
+     * @param rejeitados as linhas rejeitadas no chunk
+     * @param agora      o instante da atualização
+     * @return 0 se a reserva foi assumida por outra execução
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ImportacaoTopicos i SET i.linhasProcessadas = :linha, " +
+            "i.criados = i.criados + :criados, i.rejeitados = i.rejeitados + :rejeitados, " +
+            "i.atualizadaEm = :agora WHERE i.id = :id AND i.execucao = :execucao")
+    int registrarChunk(@Param("id") String id,
+                       @Param("execucao") String execucao,
+                       @Param("linha") long linha,
+                       @Param("criados") long criados,
+                       @Param("rejeitados") long rejeitados,
+                       @Param("agora") LocalDateTime agora);
+
+    /**
+     * Altera a situação da importação, se a execução ainda detiver a
+     * reserva.
+     *
+     * @param id       o ID da importação
+     * @param execucao o identificador da execução que detém a reserva
+     * @param situacao a nova situação
+     * @param agora    o instante da atualização
+     * @return 0 se a reserva foi assumida por outra execução
+     */
+    @Modifying
+    @Query("UPDATE ImportacaoTopicos i SET i.situacao = :situacao, i.atualizadaEm = :agora " +
+            "WHERE i.id = :id AND i.execucao = :execucao")
+    int alterarSituacao(@Param("id") String id,
+                        @Param("execucao") String execucao,
+                        @Param("situacao") SituacaoImportacao situacao,
+                        @Param("agora") LocalDateTime agora);
+}
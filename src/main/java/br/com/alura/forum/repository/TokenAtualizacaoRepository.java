@@ -0,0 +1,61 @@
+package br.com.alura.forum.repository;
+
+import br.com.alura.forum.domain.usuario.TokenAtualizacao;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository para acesso aos tokens de atualização.
+ */
+@Repository
+public interface TokenAtualizacaoRepository extends JpaRepository<TokenAtualizacao, Long> {
+
+    /**
+     * Busca um token pelo hash, com o usuário, usando o índice único do hash.
+     *
+     * @param hash o SHA-256 do token
+     * @return Optional contendo o token se encontrado
+     */
+    @EntityGraph(attributePaths = "usuario")
+    Optional<TokenAtualizacao> findByHash(String hash);
+
+    /**
+     * Marca o token como substituído, se ainda não foi. A condição garante que
+     * duas atualizações simultâneas com o mesmo token não sejam ambas aceitas.
+     *
+     * @param id    o ID do token
+     * @param agora o instante da substituição
+     * @return 1 se o token foi substituído, 0 se já havia sido
+     */
+    @Modifying
+    @Query("UPDATE TokenAtualizacao t SET t.substituidoEm = :agora " +
+            "WHERE t.id = :id AND t.substituidoEm IS NULL AND t.revogado = false")
+    int substituir(@Param("id") Long id, @Param("agora") LocalDateTime agora);
+
+    /**
+     * Revoga todos os tokens de uma família.
+     *
+     * @param familia a família dos tokens
+     * @return a quantidade de tokens revogados
+     */
+    @Modifying
+    @Query("UPDATE TokenAtualizacao t SET t.revogado = true WHERE t.familia = :familia AND t.revogado = false")
+    int revogarFamilia(@Param("familia") String familia);
+
+    /**
+     * Remove os tokens expirados antes do instante informado.
+     *
+     * @param limite o instante de corte
+     * @return a quantidade de tokens removidos
+     */
+    @Modifying
+    @Query("DELETE FROM TokenAtualizacao t WHERE t.expiraEm < :limite")
+    int removerExpirados(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,121 @@
+package br.com.alura.forum.repository;
+
+import br.com.alura.forum.domain.topico.StatusTopico;
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Acesso à tabela topicos_arquivados, que não é uma entidade JPA: os tópicos
+ * são movidos de topicos com INSERT ... SELECT e DELETE, sem passar pelo
+ * contexto de persistência.
+ *
+ * Os métodos de movimentação devem ser chamados na mesma transação, de
+ * leitura e escrita.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TopicoArquivoRepository {
+
+    private static final String SELECT_DETALHES = "SELECT id, titulo, mensagem, data_criacao, status, "
+            + "autor, curso, updated_at, versao FROM topicos_arquivados ";
+
+    /** Critério de arquivamento; o intervalo de data_criacao usa o índice (status, data_criacao). */
+    private static final String CRITERIO = "status IN (:status) AND data_criacao < :limite AND updated_at < :limite";
+
+    private static final RowMapper<DetalhesTopicoDto> DETALHES = (rs, i) -> new DetalhesTopicoDto(
+            rs.getLong("id"),
+            rs.getString("titulo"),
+            rs.getString("mensagem"),
+            rs.getTimestamp("data_criacao").toLocalDateTime(),
+            StatusTopico.valueOf(rs.getString("status")),
+            rs.getString("autor"),
+            rs.getString("curso"),
+            paraData(rs.getTimestamp("updated_at")),
+            rs.getLong("versao"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Busca os detalhes de um tópico arquivado.
+     *
+     * @param id o ID do tópico
+     * @return Optional contendo os detalhes se o tópico estiver arquivado
+     */
+    public Optional<DetalhesTopicoDto> findDetalhesById(Long id) {
+        return jdbcTemplate.query(SELECT_DETALHES + "WHERE id = :id", new MapSqlParameterSource("id", id), DETALHES)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Busca os IDs de até {@code limite} tópicos de topicos que atendem ao
+     * critério de arquivamento, sem bloquear as linhas.
+     *
+     * @param status os status arquivados
+     * @param limite a data antes da qual o tópico deve ter sido criado e
+     *               alterado pela última vez
+     * @param lote   a quantidade máxima de IDs
+     * @return os IDs encontrados
+     */
+    public List<Long> findIdsParaArquivar(Collection<StatusTopico> status, LocalDateTime limite, int lote) {
+        return jdbcTemplate.queryForList("SELECT id FROM topicos WHERE " + CRITERIO + " LIMIT :lote",
+                criterio(status, limite).addValue("lote", lote), Long.class);
+    }
+
+    /**
+     * Move para o arquivo os tópicos informados que ainda atendem ao critério.
+     *
+     * Copia as linhas e remove de topicos apenas as que continuam na versão
+     * copiada; cópias de tópicos alterados entre os dois comandos são
+     * descartadas, e esses tópicos permanecem ativos.
+     *
+     * @param ids         os IDs candidatos
+     * @param status      os status arquivados
+     * @param limite      a data limite do critério
+     * @param arquivadoEm a data do arquivamento
+     * @return os detalhes dos tópicos arquivados
+     */
+    public List<DetalhesTopicoDto> arquivar(List<Long> ids, Collection<StatusTopico> status,
+                                            LocalDateTime limite, LocalDateTime arquivadoEm) {
+        MapSqlParameterSource parametros = criterio(status, limite)
+                .addValue("ids", ids)
+                .addValue("arquivadoEm", Timestamp.valueOf(arquivadoEm));
+
+        int copiados = jdbcTemplate.update("INSERT INTO topicos_arquivados "
+                + "(id, titulo, mensagem, data_criacao, status, autor, curso, versao, updated_at, arquivado_em) "
+                + "SELECT id, titulo, mensagem, data_criacao, status, autor, curso, versao, updated_at, :arquivadoEm "
+                + "FROM topicos WHERE id IN (:ids) AND " + CRITERIO, parametros);
+        if (copiados == 0) {
+            return List.of();
+        }
+
+        int removidos = jdbcTemplate.update("DELETE FROM topicos WHERE id IN (:ids) AND versao = "
+                + "(SELECT a.versao FROM topicos_arquivados a WHERE a.id = topicos.id)", parametros);
+        if (removidos < copiados) {
+            jdbcTemplate.update("DELETE FROM topicos_arquivados WHERE id IN (:ids) "
+                    + "AND id IN (SELECT id FROM topicos WHERE id IN (:ids))", parametros);
+        }
+
+        return jdbcTemplate.query(SELECT_DETALHES + "WHERE id IN (:ids)", parametros, DETALHES);
+    }
+
+    private static MapSqlParameterSource criterio(Collection<StatusTopico> status, LocalDateTime limite) {
+        return new MapSqlParameterSource()
+                .addValue("status", status.stream().map(Enum::name).toList())
+                .addValue("limite", Timestamp.valueOf(limite));
+    }
+
+    private static LocalDateTime paraData(Timestamp data) {
+        return data == null ? null : data.toLocalDateTime();
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.alura.forum.repository;
+
+import br.com.alura.forum.domain.topico.Topico;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserção de tópicos em lotes JDBC reais.
+ *
+ * A entidade Topico usa GenerationType.IDENTITY, o que faz o Hibernate
+ * executar um INSERT por vez e ignorar hibernate.jdbc.batch_size. Aqui o
+ * INSERT é enviado com addBatch/executeBatch e os IDs são lidos das chaves
+ * geradas. No MySQL, rewriteBatchedStatements=true (definido nas
+ * propriedades do DataSource) faz o driver enviar o lote como um único
+ * INSERT de múltiplas linhas.
+ *
+ * Deve ser chamado dentro de uma transação do Spring (JPA ou JDBC): cada
+ * lote é protegido por um savepoint, de modo que uma falha desfaz apenas o
+ * lote e preserva o restante da transação.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TopicoLoteRepository {
+
+    private static final String INSERT = "INSERT INTO topicos "
+            + "(titulo, mensagem, data_criacao, status, autor, curso, versao, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insere os tópicos em um único lote JDBC e preenche o ID de cada um.
+     *
+     * @param topicos os tópicos a inserir, com datas, status e versão
+     *                preenchidos
+     * @throws DataIntegrityViolationException se algum tópico violar um
+     *                                         índice único
+     */
+    public void inserir(List<Topico> topicos) {
+        if (topicos.isEmpty()) {
+            return;
+        }
+
+        // O JpaDialect do Hibernate não suporta transações aninhadas; o
+        // savepoint é criado diretamente na conexão vinculada à transação
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            Savepoint savepoint = con.setSavepoint();
+            try {
+                inserirLote(topicos);
+                con.releaseSavepoint(savepoint);
+            } catch (RuntimeException e) {
+                con.rollback(savepoint);
+                throw e;
+            }
+            return null;
+        });
+    }
+
+    private void inserirLote(List<Topico> topicos) {
+        KeyHolder chaves = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Topico topico = topicos.get(i);
+                        ps.setString(1, topico.getTitulo());
+                        ps.setString(2, topico.getMensagem());
+                        ps.setTimestamp(3, Timestamp.valueOf(topico.getDataCriacao()));
+                        ps.setString(4, topico.getStatus().name());
+                        ps.setString(5, topico.getAutor());
+                        ps.setString(6, topico.getCurso());
+                        ps.setLong(7, topico.getVersao());
+                        ps.setTimestamp(8, Timestamp.valueOf(topico.getDataAtualizacao()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return topicos.size();
+                    }
+                },
+                chaves);
+
+        List<Map<String, Object>> ids = chaves.getKeyList();
+        for (int i = 0; i < topicos.size(); i++) {
+            Object id = ids.get(i).values().iterator().next();
+            topicos.get(i).setId(((Number) id).longValue());
+        }
+    }
+}
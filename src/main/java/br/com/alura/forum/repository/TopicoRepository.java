@@ -1,19 +1,38 @@
 package br.com.alura.forum.repository;
 
+import br.com.alura.forum.domain.topico.StatusTopico;
 import br.com.alura.forum.domain.topico.Topico;
+import br.com.alura.forum.dto.topico.ConteudoTopicoDto;
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.dto.topico.ResumoTopicoDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository para acesso aos dados da entidade Topico.
  * Fornece operações padrão de CRUD e consultas personalizadas.
  */
 @Repository
-public interface TopicoRepository extends JpaRepository<Topico, Long> {
+public interface TopicoRepository extends JpaRepository<Topico, Long>, TopicoRepositoryCustom {
+
+    /**
+     * Expressão de seleção do resumo de um tópico, sem a mensagem completa.
+     */
+    String SELECT_RESUMO = "SELECT new br.com.alura.forum.dto.topico.ResumoTopicoDto(" +
+            "t.id, t.titulo, t.status, t.autor, t.curso, t.dataCriacao, " +
+            "SUBSTRING(t.mensagem, 1, " + ResumoTopicoDto.TAMANHO_RESUMO + "), t.versao) ";
 
     /**
      * Verifica se já existe um tópico com o mesmo título.
@@ -25,17 +44,53 @@ public interface TopicoRepository extends JpaRepository<Topico, Long> {
     boolean existsByTitulo(String titulo);
 
     /**
-     * Verifica se já existe um tópico com o mesmo título e mensagem.
-     * Usado para validar a regra de negócio de não permitir duplicatas completas.
+     * Verifica se já existe um tópico com o mesmo hash de conteúdo (título e
+     * mensagem). Consulta apenas o índice único uk_topicos_hash_conteudo.
+     *
+     * @param hashConteudo o hash de conteúdo calculado por HashConteudoTopico
+     * @return true se existe, false caso contrário
+     */
+    boolean existsByHashConteudo(String hashConteudo);
+
+    /**
+     * Verifica se outro tópico, diferente do informado, já possui o hash de
+     * conteúdo.
      *
-     * @param titulo   o título do tópico
-     * @param mensagem a mensagem do tópico
+     * @param hashConteudo o hash de conteúdo calculado por HashConteudoTopico
+     * @param id           o ID do tópico a desconsiderar
      * @return true se existe, false caso contrário
      */
-    @Query("SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END " +
-            "FROM Topico t WHERE t.titulo = :titulo AND t.mensagem = :mensagem")
-    boolean existsByTituloAndMensagem(@Param("titulo") String titulo,
-            @Param("mensagem") String mensagem);
+    boolean existsByHashConteudoAndIdNot(String hashConteudo, Long id);
+
+    /**
+     * Retorna, dentre os hashes informados, os que já pertencem a algum
+     * tópico. Usado para verificar um lote inteiro com uma única consulta.
+     *
+     * @param hashes os hashes de conteúdo a verificar
+     * @return os hashes já existentes
+     */
+    @Query("SELECT t.hashConteudo FROM Topico t WHERE t.hashConteudo IN :hashes")
+    List<String> findHashesConteudoExistentes(@Param("hashes") Collection<String> hashes);
+
+    /**
+     * Retorna, dentre os títulos informados, os que já pertencem a algum
+     * tópico.
+     *
+     * @param titulos os títulos a verificar
+     * @return os títulos já existentes
+     */
+    @Query("SELECT t.titulo FROM Topico t WHERE t.titulo IN :titulos")
+    List<String> findTitulosExistentes(@Param("titulos") Collection<String> titulos);
+
+    /**
+     * Percorre os hashes de conteúdo de todos os tópicos.
+     * Deve ser consumido dentro de uma transação e fechado após o uso.
+     *
+     * @return stream com os hashes de conteúdo
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.hashConteudo FROM Topico t")
+    Stream<String> streamHashesConteudo();
 
     /**
      * Busca um tópico pelo ID.
@@ -45,4 +100,92 @@ public interface TopicoRepository extends JpaRepository<Topico, Long> {
      */
     @Override
     Optional<Topico> findById(Long id);
+
+    /**
+     * Busca os detalhes de um tópico diretamente como DTO, sem criar uma
+     * entidade gerenciada (nem o snapshot do dirty checking).
+     *
+     * @param id o id do tópico
+     * @return Optional contendo os detalhes se o tópico existir
+     */
+    @Query("SELECT new br.com.alura.forum.dto.topico.DetalhesTopicoDto(t.id, t.titulo, t.mensagem, " +
+            "t.dataCriacao, t.status, t.autor, t.curso, t.dataAtualizacao, t.versao) " +
+            "FROM Topico t WHERE t.id = :id")
+    Optional<DetalhesTopicoDto> findDetalhesById(@Param("id") Long id);
+
+    /**
+     * Busca os resumos dos tópicos com os IDs informados, sem ordem definida.
+     *
+     * @param ids os IDs dos tópicos
+     * @return os resumos dos tópicos encontrados
+     */
+    @Query(SELECT_RESUMO + "FROM Topico t WHERE t.id IN :ids")
+    List<ResumoTopicoDto> findResumosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca textual em título e mensagem com o índice FULLTEXT
+     * ft_topicos_titulo_mensagem (somente MySQL), ordenada pela relevância.
+     *
+     * @param consulta o texto da busca, em modo de linguagem natural
+     * @param pageable informações de paginação, sem ordenação
+     * @return página com os IDs e as relevâncias dos tópicos encontrados
+     */
+    @Query(value = "SELECT t.id AS id, " +
+            "MATCH(t.titulo, t.mensagem) AGAINST (:consulta IN NATURAL LANGUAGE MODE) AS relevancia " +
+            "FROM topicos t " +
+            "WHERE MATCH(t.titulo, t.mensagem) AGAINST (:consulta IN NATURAL LANGUAGE MODE) " +
+            "ORDER BY relevancia DESC, t.id DESC",
+            countQuery = "SELECT COUNT(*) FROM topicos t " +
+                    "WHERE MATCH(t.titulo, t.mensagem) AGAINST (:consulta IN NATURAL LANGUAGE MODE)",
+            nativeQuery = true)
+    Page<RelevanciaBusca> buscarPorTexto(@Param("consulta") String consulta, Pageable pageable);
+
+    /**
+     * Percorre o conteúdo textual de todos os tópicos, para indexação.
+     * Deve ser consumido dentro de uma transação e fechado após o uso.
+     *
+     * @return stream com ID, título e mensagem de cada tópico
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new br.com.alura.forum.dto.topico.ConteudoTopicoDto(t.id, t.titulo, t.mensagem) " +
+            "FROM Topico t")
+    Stream<ConteudoTopicoDto> streamConteudos();
+
+    /**
+     * Conta os tópicos de cada curso. Percorre apenas o índice
+     * idx_topicos_curso_data.
+     *
+     * @return a quantidade de tópicos por curso
+     */
+    @Query("SELECT t.curso AS chave, COUNT(t) AS total FROM Topico t GROUP BY t.curso")
+    List<Contagem<String>> contarPorCurso();
+
+    /**
+     * Conta os tópicos de cada status. Percorre apenas o índice
+     * idx_topicos_status_data.
+     *
+     * @return a quantidade de tópicos por status
+     */
+    @Query("SELECT t.status AS chave, COUNT(t) AS total FROM Topico t GROUP BY t.status")
+    List<Contagem<StatusTopico>> contarPorStatus();
+
+    /**
+     * Projeção do resultado da busca textual.
+     */
+    interface RelevanciaBusca {
+
+        Long getId();
+
+        Double getRelevancia();
+    }
+
+    /**
+     * Projeção das contagens agrupadas.
+     */
+    interface Contagem<K> {
+
+        K getChave();
+
+        Long getTotal();
+    }
 }
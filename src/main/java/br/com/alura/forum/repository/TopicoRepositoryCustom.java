@@ -0,0 +1,74 @@
+package br.com.alura.forum.repository;
+
+import br.com.alura.forum.domain.topico.CursorTopico;
+import br.com.alura.forum.domain.topico.StatusTopico;
+import br.com.alura.forum.domain.topico.Topico;
+import br.com.alura.forum.dto.topico.FiltroTopicosDto;
+import br.com.alura.forum.dto.topico.ResumoTopicoDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de tópicos com filtros dinâmicos, implementadas com a Criteria API
+ * em {@link TopicoRepositoryImpl}.
+ */
+public interface TopicoRepositoryCustom {
+
+    /**
+     * Lista os resumos dos tópicos que atendem aos filtros, com paginação.
+     * Apenas os filtros informados entram na cláusula WHERE, permitindo que o
+     * banco use o índice composto correspondente.
+     *
+     * @param filtro   os filtros da listagem
+     * @param pageable informações de paginação e ordenação
+     * @return página contendo os resumos dos tópicos
+     */
+    Page<ResumoTopicoDto> listarResumos(FiltroTopicosDto filtro, Pageable pageable);
+
+    /**
+     * Lista os resumos dos tópicos que atendem aos filtros a partir de um cursor,
+     * na ordem (dataCriacao DESC, id DESC). Não executa COUNT.
+     *
+     * Sem cursor, retorna os mais recentes. Com cursor de próxima página,
+     * retorna os seguintes (mais antigos) em ordem decrescente. Com cursor de
+     * página anterior, retorna os anteriores (mais recentes) em ordem
+     * crescente, partindo do mais próximo do cursor.
+     *
+     * @param filtro os filtros da listagem
+     * @param cursor a posição de navegação, ou null para a primeira página
+     * @param limite a quantidade máxima de tópicos
+     * @return os resumos dos tópicos
+     */
+    List<ResumoTopicoDto> listarResumosPorCursor(FiltroTopicosDto filtro, CursorTopico cursor, int limite);
+
+    /**
+     * Percorre os tópicos que atendem aos filtros, em ordem de ID, lendo as
+     * linhas do banco em blocos (fetch size) e sem manter snapshots para
+     * dirty checking. Deve ser consumido dentro de uma transação e fechado
+     * após o uso; quem consome deve desanexar cada tópico já processado.
+     *
+     * @param filtro os filtros da listagem
+     * @return stream com os tópicos
+     */
+    Stream<Topico> streamTopicos(FiltroTopicosDto filtro);
+
+    /**
+     * Atualiza os campos informados do tópico em um único UPDATE, condicionado
+     * à versão esperada, e incrementa a versão. Campos null não entram no SET.
+     * Não carrega nem altera entidades do contexto de persistência.
+     *
+     * @param id              o ID do tópico
+     * @param versaoEsperada  a versão que o tópico deve ter
+     * @param titulo          o novo título, ou null para manter
+     * @param mensagem        a nova mensagem, ou null para manter
+     * @param status          o novo status, ou null para manter
+     * @param dataAtualizacao a data da alteração
+     * @return 1 se o tópico foi atualizado, 0 se não existe ou mudou de versão
+     */
+    int atualizarCampos(Long id, Long versaoEsperada, String titulo, String mensagem,
+                        StatusTopico status, LocalDateTime dataAtualizacao);
+}
@@ -0,0 +1,197 @@
+package br.com.alura.forum.repository;
+
+import br.com.alura.forum.domain.topico.CursorTopico;
+import br.com.alura.forum.domain.topico.StatusTopico;
+import br.com.alura.forum.domain.topico.Topico;
+import br.com.alura.forum.dto.topico.FiltroTopicosDto;
+import br.com.alura.forum.dto.topico.ResumoTopicoDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implementação das consultas dinâmicas de {@link TopicoRepositoryCustom}.
+ */
+@Transactional(readOnly = true)
+public class TopicoRepositoryImpl implements TopicoRepositoryCustom {
+
+    /** Linhas buscadas por ida ao banco nas consultas em stream. */
+    private static final int TAMANHO_BLOCO_STREAM = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ResumoTopicoDto> listarResumos(FiltroTopicosDto filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ResumoTopicoDto> query = cb.createQuery(ResumoTopicoDto.class);
+        Root<Topico> topico = query.from(Topico.class);
+        query.select(selecionarResumo(cb, topico))
+                .where(filtrar(cb, topico, filtro).toArray(Predicate[]::new))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), topico, cb));
+
+        List<ResumoTopicoDto> conteudo = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // O COUNT só é executado quando não é possível deduzir o total da
+        // própria página
+        return PageableExecutionUtils.getPage(conteudo, pageable, () -> contar(filtro));
+    }
+
+    @Override
+    public List<ResumoTopicoDto> listarResumosPorCursor(FiltroTopicosDto filtro, CursorTopico cursor, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ResumoTopicoDto> query = cb.createQuery(ResumoTopicoDto.class);
+        Root<Topico> topico = query.from(Topico.class);
+        List<Predicate> predicados = filtrar(cb, topico, filtro);
+
+        Path<LocalDateTime> dataCriacao = topico.get("dataCriacao");
+        Path<Long> id = topico.get("id");
+
+        if (cursor == null || !cursor.anterior()) {
+            if (cursor != null) {
+                // (dataCriacao, id) < (cursor): o primeiro termo delimita a
+                // faixa do índice, o segundo resolve os empates
+                predicados.add(cb.lessThanOrEqualTo(dataCriacao, cursor.dataCriacao()));
+                predicados.add(cb.or(
+                        cb.lessThan(dataCriacao, cursor.dataCriacao()),
+                        cb.lessThan(id, cursor.id())));
+            }
+            query.orderBy(cb.desc(dataCriacao), cb.desc(id));
+        } else {
+            predicados.add(cb.greaterThanOrEqualTo(dataCriacao, cursor.dataCriacao()));
+            predicados.add(cb.or(
+                    cb.greaterThan(dataCriacao, cursor.dataCriacao()),
+                    cb.greaterThan(id, cursor.id())));
+            query.orderBy(cb.asc(dataCriacao), cb.asc(id));
+        }
+
+        query.select(selecionarResumo(cb, topico))
+                .where(predicados.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Topico> streamTopicos(FiltroTopicosDto filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Topico> query = cb.createQuery(Topico.class);
+        Root<Topico> topico = query.from(Topico.class);
+        query.select(topico)
+                .where(filtrar(cb, topico, filtro).toArray(Predicate[]::new))
+                .orderBy(cb.asc(topico.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, TAMANHO_BLOCO_STREAM)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    @Transactional
+    public int atualizarCampos(Long id, Long versaoEsperada, String titulo, String mensagem,
+                               StatusTopico status, LocalDateTime dataAtualizacao) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaUpdate<Topico> update = cb.createCriteriaUpdate(Topico.class);
+        Root<Topico> topico = update.from(Topico.class);
+        if (titulo != null) {
+            update.set(topico.<String>get("titulo"), titulo);
+        }
+        if (mensagem != null) {
+            update.set(topico.<String>get("mensagem"), mensagem);
+        }
+        if (status != null) {
+            update.set(topico.<StatusTopico>get("status"), status);
+        }
+
+        // A data é gravada explicitamente (e não pelo ON UPDATE do MySQL) para
+        // que quem atualiza conheça o valor sem reler a linha
+        Path<Long> versao = topico.get("versao");
+        update.set(versao, cb.sum(versao, 1L))
+                .set(topico.<LocalDateTime>get("dataAtualizacao"), dataAtualizacao)
+                .where(cb.equal(topico.get("id"), id), cb.equal(versao, versaoEsperada));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private long contar(FiltroTopicosDto filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Topico> topico = query.from(Topico.class);
+        query.select(cb.count(topico))
+                .where(filtrar(cb, topico, filtro).toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Seleção equivalente a TopicoRepository.SELECT_RESUMO.
+     */
+    private CompoundSelection<ResumoTopicoDto> selecionarResumo(
+            CriteriaBuilder cb, Root<Topico> topico) {
+
+        return cb.construct(ResumoTopicoDto.class,
+                topico.get("id"),
+                topico.get("titulo"),
+                topico.get("status"),
+                topico.get("autor"),
+                topico.get("curso"),
+                topico.get("dataCriacao"),
+                cb.substring(topico.get("mensagem"), 1, ResumoTopicoDto.TAMANHO_RESUMO),
+                topico.get("versao"));
+    }
+
+    /**
+     * Monta os predicados dos filtros informados. Igualdades primeiro, faixa de
+     * data por último, na ordem das colunas dos índices compostos.
+     */
+    private List<Predicate> filtrar(CriteriaBuilder cb, Root<Topico> topico, FiltroTopicosDto filtro) {
+        List<Predicate> predicados = new ArrayList<>();
+
+        if (filtro == null) {
+            return predicados;
+        }
+        if (filtro.curso() != null && !filtro.curso().isBlank()) {
+            predicados.add(cb.equal(topico.get("curso"), filtro.curso()));
+        }
+        if (filtro.status() != null) {
+            predicados.add(cb.equal(topico.get("status"), filtro.status()));
+        }
+        if (filtro.autor() != null && !filtro.autor().isBlank()) {
+            predicados.add(cb.equal(topico.get("autor"), filtro.autor()));
+        }
+        if (filtro.de() != null) {
+            predicados.add(cb.greaterThanOrEqualTo(topico.get("dataCriacao"), filtro.de()));
+        }
+        if (filtro.ate() != null) {
+            predicados.add(cb.lessThanOrEqualTo(topico.get("dataCriacao"), filtro.ate()));
+        }
+        return predicados;
+    }
+}
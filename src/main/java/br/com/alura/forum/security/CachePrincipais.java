@@ -0,0 +1,119 @@
+package br.com.alura.forum.security;
+
+import br.com.alura.forum.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache em memória dos usuários autenticados, indexado pelo login.
+ * Evita consultar o banco de dados a cada requisição autenticada depois que o
+ * token JWT já foi validado. Guarda uma cópia imutável
+ * ({@link PrincipalAutenticado}), sem o hash da senha, e não a entidade
+ * gerenciada.
+ *
+ * As entradas expiram após um TTL configurável e são removidas quando o
+ * usuário é atualizado ou excluído nesta instância, na gravação e de novo
+ * após o commit (ver {@link InvalidacaoCachePrincipais}). Uma leitura feita
+ * antes de uma invalidação não é armazenada se terminar depois dela: sem
+ * isso, a requisição que lesse a linha antiga entre a gravação e o commit a
+ * manteria em cache até o fim do TTL. Em implantações com várias instâncias,
+ * o TTL limita o tempo em que uma alteração feita em outra instância pode
+ * ficar invisível.
+ */
+@Component
+@Slf4j
+public class CachePrincipais {
+
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<String, PrincipalAutenticado> principais;
+
+    /** Incrementado a cada invalidação, para descartar leituras anteriores a ela. */
+    private final AtomicLong invalidacoes = new AtomicLong();
+
+    public CachePrincipais(
+            UsuarioRepository usuarioRepository,
+            @Value("${api.security.principal-cache.ttl-seconds:300}") long ttlSegundos,
+            @Value("${api.security.principal-cache.max-entries:10000}") long maxEntradas) {
+
+        this.usuarioRepository = usuarioRepository;
+        this.principais = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Busca o usuário pelo login, consultando o banco apenas se ele não estiver
+     * em cache. Logins inexistentes não são armazenados.
+     *
+     * @param login o login do usuário
+     * @return Optional contendo o usuário se encontrado
+     */
+    public Optional<PrincipalAutenticado> buscarPorLogin(String login) {
+        PrincipalAutenticado principal = principais.getIfPresent(login);
+        if (principal != null) {
+            return Optional.of(principal);
+        }
+
+        long invalidacoesAntes = invalidacoes.get();
+        Optional<PrincipalAutenticado> encontrado = usuarioRepository.findByLogin(login).map(PrincipalAutenticado::de);
+
+        // Armazenado só se nenhuma invalidação ocorreu durante a leitura; o
+        // bloqueio impede que ela ocorra entre a verificação e o put
+        encontrado.ifPresent(p -> {
+            synchronized (this) {
+                if (invalidacoes.get() == invalidacoesAntes) {
+                    principais.put(login, p);
+                }
+            }
+        });
+        return encontrado;
+    }
+
+    /**
+     * Remove do cache o usuário informado. Além da entrada do login atual,
+     * remove qualquer entrada com o mesmo ID, cobrindo o caso de alteração do
+     * login.
+     *
+     * @param id    o ID do usuário atualizado ou excluído
+     * @param login o login atual do usuário
+     */
+    public synchronized void invalidar(Long id, String login) {
+        log.debug("Invalidando usuário em cache: {}", login);
+
+        invalidacoes.incrementAndGet();
+        if (login != null) {
+            principais.invalidate(login);
+        }
+        if (id != null) {
+            principais.asMap().values().removeIf(p -> id.equals(p.id()));
+        }
+    }
+
+    /**
+     * Retorna as estatísticas do cache (acertos, faltas, remoções).
+     *
+     * @return as estatísticas acumuladas do cache
+     */
+    public CacheStats estatisticas() {
+        return principais.stats();
+    }
+
+    /**
+     * Retorna a quantidade aproximada de usuários presentes no cache.
+     *
+     * @return o tamanho estimado do cache
+     */
+    public long tamanho() {
+        return principais.estimatedSize();
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.alura.forum.security;
+
+import br.com.alura.forum.domain.usuario.Usuario;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA que remove o usuário do {@link CachePrincipais} sempre que ele
+ * é atualizado ou excluído pelo Hibernate.
+ *
+ * A remoção é feita na gravação (flush) e repetida após o commit: entre os
+ * dois, outra requisição ainda lê a linha antiga e poderia colocá-la de volta
+ * no cache, mantendo por todo o TTL um usuário excluído ou com a senha
+ * alterada.
+ *
+ * O cache é obtido de forma tardia para não criar dependência circular com o
+ * EntityManagerFactory durante a inicialização.
+ */
+@Component
+@RequiredArgsConstructor
+public class InvalidacaoCachePrincipais {
+
+    private final ObjectProvider<CachePrincipais> cachePrincipais;
+
+    @PostUpdate
+    @PostRemove
+    void invalidar(Usuario usuario) {
+        Long id = usuario.getId();
+        String login = usuario.getLogin();
+
+        cachePrincipais.ifAvailable(cache -> {
+            cache.invalidar(id, login);
+
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        cache.invalidar(id, login);
+                    }
+                });
+            }
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.alura.forum.security;
+
+import br.com.alura.forum.exception.LoginLimitadoException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite de tentativas de login por login e por endereço IP, verificado antes
+ * da senha.
+ *
+ * Cada chave tem um balde de fichas (token bucket) com capacidade igual ao
+ * limite por minuto, recarregado continuamente ao longo do minuto. O limite
+ * por login contém ataques de força bruta a uma conta; o limite por IP
+ * contém o teste de credenciais vazadas (muitos logins a partir da mesma
+ * origem). Os baldes ficam em caches Caffeine e expiram após um minuto sem
+ * uso, quando já estariam cheios.
+ */
+@Component
+@Slf4j
+public class LimiteTentativasLogin {
+
+    private static final Duration JANELA = Duration.ofMinutes(1);
+    private static final long MAXIMO_CHAVES = 100_000;
+
+    private final int tentativasPorLogin;
+    private final int tentativasPorIp;
+    private final Cache<String, Balde> baldesPorLogin;
+    private final Cache<String, Balde> baldesPorIp;
+    private final Counter limitadasPorLogin;
+    private final Counter limitadasPorIp;
+
+    public LimiteTentativasLogin(
+            @Value("${api.security.login.limite.por-login:10}") int tentativasPorLogin,
+            @Value("${api.security.login.limite.por-ip:30}") int tentativasPorIp,
+            MeterRegistry meterRegistry) {
+
+        this.tentativasPorLogin = tentativasPorLogin;
+        this.tentativasPorIp = tentativasPorIp;
+        this.baldesPorLogin = novoCache();
+        this.baldesPorIp = novoCache();
+        this.limitadasPorLogin = contador(meterRegistry, "login");
+        this.limitadasPorIp = contador(meterRegistry, "ip");
+    }
+
+    /**
+     * Consome uma tentativa do IP e do login informados.
+     *
+     * @param login o login informado na tentativa
+     * @param ip    o endereço de origem da requisição
+     * @throws LoginLimitadoException se um dos limites estiver esgotado
+     */
+    public void verificar(String login, String ip) {
+        long agora = System.nanoTime();
+
+        long esperaIp = consumir(baldesPorIp, ip, tentativasPorIp, agora);
+        if (esperaIp > 0) {
+            log.warn("Limite de tentativas de login por IP excedido. IP: {}", ip);
+            limitadasPorIp.increment();
+            throw limitado("Muitas tentativas de login a partir deste endereço", esperaIp);
+        }
+
+        long esperaLogin = consumir(baldesPorLogin, login.toLowerCase(Locale.ROOT), tentativasPorLogin, agora);
+        if (esperaLogin > 0) {
+            log.warn("Limite de tentativas de login excedido. Usuário: {}", login);
+            limitadasPorLogin.increment();
+            throw limitado("Muitas tentativas de login para este usuário", esperaLogin);
+        }
+    }
+
+    /**
+     * @return 0 se a tentativa foi consumida, ou os nanossegundos até a
+     *         próxima ficha
+     */
+    private static long consumir(Cache<String, Balde> baldes, String chave, int limite, long agora) {
+        if (limite <= 0 || chave == null) {
+            return 0;
+        }
+        return baldes.get(chave, c -> new Balde(limite, agora)).consumir(agora);
+    }
+
+    private static LoginLimitadoException limitado(String mensagem, long esperaNanos) {
+        return new LoginLimitadoException(mensagem + ". Tente novamente mais tarde",
+                TimeUnit.NANOSECONDS.toSeconds(esperaNanos) + 1);
+    }
+
+    private static Cache<String, Balde> novoCache() {
+        return Caffeine.newBuilder()
+                .expireAfterAccess(JANELA)
+                .maximumSize(MAXIMO_CHAVES)
+                .build();
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String motivo) {
+        return Counter.builder("forum.login.limitado")
+                .description("Tentativas de login recusadas sem verificar a senha, por motivo")
+                .tag("motivo", motivo)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Balde de fichas de uma chave.
+     */
+    private static final class Balde {
+
+        private final int capacidade;
+        private final double fichasPorNano;
+        private double fichas;
+        private long ultimaRecarga;
+
+        Balde(int capacidade, long agora) {
+            this.capacidade = capacidade;
+            this.fichasPorNano = capacidade / (double) JANELA.toNanos();
+            this.fichas = capacidade;
+            this.ultimaRecarga = agora;
+        }
+
+        synchronized long consumir(long agora) {
+            if (agora > ultimaRecarga) {
+                fichas = Math.min(capacidade, fichas + (agora - ultimaRecarga) * fichasPorNano);
+                ultimaRecarga = agora;
+            }
+
+            if (fichas >= 1) {
+                fichas -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - fichas) / fichasPorNano);
+        }
+    }
+}
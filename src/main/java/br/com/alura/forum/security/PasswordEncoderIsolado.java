@@ -0,0 +1,118 @@
+package br.com.alura.forum.security;
+
+import br.com.alura.forum.exception.LoginLimitadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder que executa as verificações de senha em um executor
+ * dedicado, de tamanho e fila limitados.
+ *
+ * Cada verificação BCrypt ocupa um núcleo por dezenas de milissegundos; com
+ * o executor, uma rajada de logins usa no máximo as threads dele e não
+ * disputa a CPU com as requisições de tópicos. Se a fila do executor estiver
+ * cheia ou a verificação não terminar no prazo, a tentativa é recusada com
+ * LoginLimitadoException (429) em vez de aguardar indefinidamente.
+ *
+ * O executor é criado e encerrado por esta classe, e não exposto como bean,
+ * para não substituir o executor de tarefas padrão do Spring Boot.
+ */
+public class PasswordEncoderIsolado implements PasswordEncoder, AutoCloseable {
+
+    private static final long SEGUNDOS_PARA_NOVA_TENTATIVA = 1;
+
+    private final PasswordEncoder delegado;
+    private final ThreadPoolExecutor executor;
+    private final long esperaMaximaMs;
+    private final Counter recusadas;
+
+    public PasswordEncoderIsolado(PasswordEncoder delegado, int threads, int tamanhoFila, long esperaMaximaMs,
+                                  MeterRegistry meterRegistry) {
+        AtomicInteger sequencia = new AtomicInteger();
+
+        this.delegado = delegado;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, tamanhoFila)),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "verificacao-senha-" + sequencia.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, "verificacao.senha", Tags.empty()).bindTo(meterRegistry);
+        this.recusadas = Counter.builder("forum.login.limitado")
+                .description("Tentativas de login recusadas sem verificar a senha, por motivo")
+                .tag("motivo", "saturacao")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return delegado.encode(senha);
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String senhaCodificada) {
+        Future<Boolean> verificacao;
+        try {
+            verificacao = executor.submit(() -> delegado.matches(senha, senhaCodificada));
+        } catch (RejectedExecutionException e) {
+            throw saturado();
+        }
+
+        try {
+            return verificacao.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException e) {
+            verificacao.cancel(true);
+            throw saturado();
+
+        } catch (InterruptedException e) {
+            verificacao.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InternalAuthenticationServiceException("Verificação de senha interrompida", e);
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new InternalAuthenticationServiceException("Falha na verificação de senha", e.getCause());
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String senhaCodificada) {
+        return delegado.upgradeEncoding(senhaCodificada);
+    }
+
+    /**
+     * Encerra o executor; chamado pelo Spring ao destruir o bean.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private LoginLimitadoException saturado() {
+        recusadas.increment();
+        return new LoginLimitadoException(
+                "Muitas tentativas de login em andamento. Tente novamente em instantes",
+                SEGUNDOS_PARA_NOVA_TENTATIVA);
+    }
+}
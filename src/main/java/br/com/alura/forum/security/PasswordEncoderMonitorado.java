@@ -0,0 +1,53 @@
+package br.com.alura.forum.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordEncoder que mede o tempo de cada verificação de senha.
+ *
+ * A verificação BCrypt é intencionalmente cara e domina o tempo de POST
+ * /login; o timer forum.login.senha (com o resultado da verificação) permite
+ * acompanhar esse custo e ajustar o fator de custo do BCrypt.
+ */
+public class PasswordEncoderMonitorado implements PasswordEncoder {
+
+    private final PasswordEncoder delegado;
+    private final Timer senhaValida;
+    private final Timer senhaInvalida;
+
+    public PasswordEncoderMonitorado(PasswordEncoder delegado, MeterRegistry meterRegistry) {
+        this.delegado = delegado;
+        this.senhaValida = timer(meterRegistry, "valida");
+        this.senhaInvalida = timer(meterRegistry, "invalida");
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return delegado.encode(senha);
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String senhaCodificada) {
+        long inicio = System.nanoTime();
+        boolean valida = delegado.matches(senha, senhaCodificada);
+
+        (valida ? senhaValida : senhaInvalida).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return valida;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String senhaCodificada) {
+        return delegado.upgradeEncoding(senhaCodificada);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String resultado) {
+        return Timer.builder("forum.login.senha")
+                .description("Tempo de verificação da senha (BCrypt) no login")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.alura.forum.security;
+
+import br.com.alura.forum.domain.usuario.Usuario;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Usuário autenticado por token JWT, mantido no {@link CachePrincipais} e no
+ * contexto de segurança. Cópia imutável dos dados do usuário necessários
+ * para autorizar a requisição, sem o hash da senha e desligada do
+ * EntityManager.
+ *
+ * @param id          o ID do usuário
+ * @param login       o login do usuário
+ * @param autoridades as autoridades do usuário
+ */
+public record PrincipalAutenticado(
+        Long id,
+        String login,
+        List<GrantedAuthority> autoridades) implements AuthenticatedPrincipal {
+
+    public PrincipalAutenticado {
+        autoridades = List.copyOf(autoridades);
+    }
+
+    /**
+     * Cria a cópia a partir da entidade lida do banco.
+     *
+     * @param usuario o usuário
+     * @return os dados do usuário autenticado
+     */
+    public static PrincipalAutenticado de(Usuario usuario) {
+        return new PrincipalAutenticado(usuario.getId(), usuario.getLogin(), List.copyOf(usuario.getAuthorities()));
+    }
+
+    /**
+     * Retorna o login, usado por Authentication.getName() (autor na
+     * auditoria e nas importações).
+     */
+    @Override
+    public String getName() {
+        return login;
+    }
+}
@@ -1,6 +1,5 @@
 package br.com.alura.forum.security;
 
-import br.com.alura.forum.repository.UsuarioRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,7 +24,7 @@ import java.io.IOException;
 public class SecurityFilter extends OncePerRequestFilter {
 
     private final TokenService tokenService;
-    private final UsuarioRepository usuarioRepository;
+    private final CachePrincipais cachePrincipais;
 
     /**
      * Filtra cada requisição HTTP, extraindo e validando o token JWT.
@@ -52,15 +51,15 @@ public class SecurityFilter extends OncePerRequestFilter {
             if (login != null) {
                 log.debug("Token válido para usuário: {}", login);
 
-                // Busca o usuário no banco de dados
-                var usuario = usuarioRepository.findByLogin(login);
+                // Busca o usuário no cache, consultando o banco apenas na ausência
+                var principal = cachePrincipais.buscarPorLogin(login);
 
-                if (usuario.isPresent()) {
+                if (principal.isPresent()) {
                     // Cria um token de autenticação
                     var authenticationToken = new UsernamePasswordAuthenticationToken(
-                            usuario.get(),
+                            principal.get(),
                             null,
-                            usuario.get().getAuthorities());
+                            principal.get().autoridades());
 
                     // Define a autenticação no contexto de segurança do Spring
                     SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -79,12 +78,13 @@ public class SecurityFilter extends OncePerRequestFilter {
     /**
      * Extrai o token JWT do cabeçalho Authorization.
      * O token deve estar no formato: "Bearer <token>"
+     * Visível no pacote para o benchmark de extração (SecurityFilterBenchmark).
      *
      * @param request a requisição HTTP
      * @return o token JWT sem o prefixo "Bearer", ou null se não houver token
      *         válido
      */
-    private String extrairToken(HttpServletRequest request) {
+    String extrairToken(HttpServletRequest request) {
         String authorizationHeader = request.getHeader("Authorization");
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
@@ -0,0 +1,166 @@
+package br.com.alura.forum.security;
+
+import br.com.alura.forum.domain.usuario.TokenAtualizacao;
+import br.com.alura.forum.domain.usuario.Usuario;
+import br.com.alura.forum.dto.autenticacao.DadosTokenJWT;
+import br.com.alura.forum.exception.TokenAtualizacaoInvalidoException;
+import br.com.alura.forum.repository.TokenAtualizacaoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Serviço de tokens de atualização (refresh tokens).
+ *
+ * O login emite, junto com um token de acesso (JWT) de curta duração, um
+ * token de atualização opaco e de longa duração. Em POST /login/atualizar
+ * ele é trocado por um novo token de acesso sem verificar a senha: a
+ * validação é uma busca pelo SHA-256 do token no índice único de
+ * tokens_atualizacao.
+ *
+ * A cada uso o token é substituído por um novo da mesma família (rotação).
+ * Apresentar um token já substituído indica que ele vazou (o cliente legítimo
+ * já recebeu o sucessor): toda a família é revogada e o usuário precisa
+ * fazer login novamente.
+ */
+@Service
+@Slf4j
+public class TokenAtualizacaoService {
+
+    private static final int TAMANHO_TOKEN_BYTES = 32;
+
+    private final TokenAtualizacaoRepository tokenAtualizacaoRepository;
+    private final TokenService tokenService;
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final long validadeDias;
+
+    private final Counter emitidos;
+    private final Counter invalidos;
+    private final Counter reutilizados;
+
+    public TokenAtualizacaoService(
+            TokenAtualizacaoRepository tokenAtualizacaoRepository,
+            TokenService tokenService,
+            MeterRegistry meterRegistry,
+            @Value("${api.security.refresh-token.expiration-days:30}") long validadeDias) {
+
+        this.tokenAtualizacaoRepository = tokenAtualizacaoRepository;
+        this.tokenService = tokenService;
+        this.validadeDias = validadeDias;
+        this.emitidos = contador(meterRegistry, "emitido");
+        this.invalidos = contador(meterRegistry, "invalido");
+        this.reutilizados = contador(meterRegistry, "reutilizado");
+    }
+
+    /**
+     * Emite o token de atualização de uma nova sessão (nova família).
+     *
+     * @param usuario o usuário autenticado
+     * @return o token de atualização, a ser entregue ao cliente
+     */
+    @Transactional
+    public String emitir(Usuario usuario) {
+        return emitir(usuario, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Troca um token de atualização válido por um novo token de acesso e um
+     * novo token de atualização da mesma família.
+     *
+     * @param token o token de atualização recebido
+     * @return os novos tokens
+     * @throws TokenAtualizacaoInvalidoException se o token for desconhecido,
+     *                                           expirado, revogado ou já
+     *                                           substituído
+     */
+    @Transactional(noRollbackFor = TokenAtualizacaoInvalidoException.class)
+    public DadosTokenJWT atualizar(String token) {
+        LocalDateTime agora = LocalDateTime.now();
+
+        TokenAtualizacao atual = tokenAtualizacaoRepository.findByHash(calcularHash(token))
+                .orElseThrow(() -> invalido("Token de atualização inválido"));
+
+        if (atual.isRevogado() || !atual.getExpiraEm().isAfter(agora)) {
+            throw invalido("Token de atualização expirado ou revogado");
+        }
+
+        // A substituição condicional também detecta o reuso concorrente: só
+        // uma requisição consegue substituir o token
+        if (atual.getSubstituidoEm() != null || tokenAtualizacaoRepository.substituir(atual.getId(), agora) == 0) {
+            int revogados = tokenAtualizacaoRepository.revogarFamilia(atual.getFamilia());
+            reutilizados.increment();
+            log.warn("Reuso de token de atualização detectado; família revogada. Usuário: {}, Tokens revogados: {}",
+                    atual.getUsuario().getLogin(), revogados);
+            throw new TokenAtualizacaoInvalidoException("Token de atualização já utilizado. Faça login novamente");
+        }
+
+        Usuario usuario = atual.getUsuario();
+        String novoToken = emitir(usuario, atual.getFamilia());
+
+        log.info("Token de acesso renovado para usuário: {}", usuario.getLogin());
+        return DadosTokenJWT.bearer(tokenService.gerarTokenAcesso(usuario), novoToken);
+    }
+
+    /**
+     * Remove periodicamente os tokens expirados.
+     */
+    @Scheduled(fixedDelayString = "${api.security.refresh-token.limpeza-intervalo-ms:3600000}",
+            initialDelayString = "${api.security.refresh-token.limpeza-intervalo-ms:3600000}")
+    @Transactional
+    public void removerExpirados() {
+        int removidos = tokenAtualizacaoRepository.removerExpirados(LocalDateTime.now());
+        if (removidos > 0) {
+            log.info("Tokens de atualização expirados removidos: {}", removidos);
+        }
+    }
+
+    private String emitir(Usuario usuario, String familia) {
+        byte[] bytes = new byte[TAMANHO_TOKEN_BYTES];
+        aleatorio.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        tokenAtualizacaoRepository.save(new TokenAtualizacao(
+                calcularHash(token), familia, usuario, LocalDateTime.now().plusDays(validadeDias)));
+        emitidos.increment();
+        return token;
+    }
+
+    private TokenAtualizacaoInvalidoException invalido(String mensagem) {
+        invalidos.increment();
+        return new TokenAtualizacaoInvalidoException(mensagem);
+    }
+
+    /**
+     * Calcula o SHA-256 do token em hexadecimal. O token tem 256 bits
+     * aleatórios, então um hash sem sal é suficiente para não armazená-lo.
+     */
+    private static String calcularHash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível na JVM", e);
+        }
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("forum.token.atualizacao")
+                .description("Usos de tokens de atualização, por resultado")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+}
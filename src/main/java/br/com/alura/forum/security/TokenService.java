@@ -2,20 +2,42 @@ package br.com.alura.forum.security;
 
 import br.com.alura.forum.domain.usuario.Usuario;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Serviço responsável pela geração e validação de tokens JWT.
  * Utiliza a biblioteca auth0-java-jwt para operações com JWT.
+ *
+ * O algoritmo HMAC e o verificador são criados uma única vez e compartilhados
+ * entre as threads (ambos são imutáveis). Tokens já verificados ficam em um
+ * cache limitado, indexado pelo SHA-256 do token e expirado no instante do
+ * claim "exp", evitando repetir a verificação da assinatura e o parsing do
+ * JSON a cada requisição do mesmo cliente.
+ *
+ * O tempo de cada validação é registrado no timer forum.token.validacao,
+ * separado pela origem (cache ou verificação) e pelo resultado.
  */
 @Service
 @Slf4j
@@ -27,26 +49,72 @@ public class TokenService {
     @Value("${api.security.token.issuer:Forum Hub}")
     private String issuer;
 
-    @Value("${api.security.token.expiration-hours:24}")
-    private Integer expirationHours;
+    @Value("${api.security.token.expiration-minutes:15}")
+    private Integer expirationMinutes;
+
+    @Value("${api.security.token.cache.max-entries:10000}")
+    private Integer cacheMaxEntries;
+
+    private Algorithm algorithm;
+
+    private JWTVerifier verifier;
+
+    private Cache<String, TokenVerificado> tokensVerificados;
+
+    private final MeterRegistry meterRegistry;
+
+    private Timer validacaoCache;
+    private Timer validacaoValida;
+    private Timer validacaoInvalida;
+
+    public TokenService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Login e expiração de um token cuja assinatura já foi verificada.
+     */
+    private record TokenVerificado(String login, Instant expiraEm) {
+    }
 
     /**
-     * Gera um novo token JWT para um usuário autenticado.
+     * Cria o algoritmo, o verificador e o cache de tokens verificados.
+     */
+    @PostConstruct
+    void inicializar() {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(issuer)
+                .build();
+        this.tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfter(new ExpiracaoToken())
+                .recordStats()
+                .build();
+
+        this.validacaoCache = timerValidacao("cache", "valido");
+        this.validacaoValida = timerValidacao("verificacao", "valido");
+        this.validacaoInvalida = timerValidacao("verificacao", "invalido");
+    }
+
+    /**
+     * Gera um token de acesso de curta duração (expiration-minutes), emitido
+     * junto com um token de atualização. A revogação da sessão impede novas
+     * renovações; o prazo curto limita o uso de um token de acesso já
+     * emitido.
      *
      * @param usuario o usuário autenticado
      * @return o token JWT gerado
      * @throws JWTCreationException em caso de erro ao criar o token
      */
-    public String gerarToken(Usuario usuario) {
+    public String gerarTokenAcesso(Usuario usuario) {
         try {
             log.debug("Gerando token JWT para usuário: {}", usuario.getLogin());
 
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-
             String token = JWT.create()
                     .withIssuer(issuer)
                     .withSubject(usuario.getLogin())
-                    .withExpiresAt(gerarDataExpiracao())
+                    .withExpiresAt(Instant.now().plus(Duration.ofMinutes(expirationMinutes)))
                     .sign(algorithm);
 
             log.info("Token JWT gerado com sucesso para usuário: {}", usuario.getLogin());
@@ -60,34 +128,107 @@ public class TokenService {
 
     /**
      * Valida um token JWT e retorna o login do usuário.
+     * Consulta primeiro o cache de tokens já verificados; somente em caso de
+     * ausência a assinatura e os claims são verificados.
      *
      * @param token o token JWT a ser validado
      * @return o login do usuário extraído do token, ou null se o token for inválido
      */
     public String validarToken(String token) {
+        long inicio = System.nanoTime();
+        String chave = calcularDigest(token);
+
+        TokenVerificado verificado = tokensVerificados.getIfPresent(chave);
+        if (verificado != null && verificado.expiraEm().isAfter(Instant.now())) {
+            registrar(validacaoCache, inicio);
+            return verificado.login();
+        }
+
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
+            DecodedJWT jwt = verifier.verify(token);
 
-            return JWT.require(algorithm)
-                    .withIssuer(issuer)
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            if (jwt.getExpiresAtAsInstant() != null) {
+                tokensVerificados.put(chave, new TokenVerificado(jwt.getSubject(), jwt.getExpiresAtAsInstant()));
+            }
+
+            registrar(validacaoValida, inicio);
+            return jwt.getSubject();
 
         } catch (JWTVerificationException exception) {
             log.warn("Token JWT inválido ou expirado: {}", exception.getMessage());
+            registrar(validacaoInvalida, inicio);
             return null;
         }
     }
 
     /**
-     * Calcula a data de expiração do token.
+     * Retorna as estatísticas do cache de tokens verificados (acertos, faltas,
+     * remoções).
+     *
+     * @return as estatísticas acumuladas do cache
+     */
+    public CacheStats estatisticasCache() {
+        return tokensVerificados.stats();
+    }
+
+    /**
+     * Retorna a quantidade aproximada de tokens presentes no cache.
      *
-     * @return um Instant representando a data e hora de expiração
+     * @return o tamanho estimado do cache
      */
-    private Instant gerarDataExpiracao() {
-        return LocalDateTime.now()
-                .plusHours(expirationHours)
-                .toInstant(ZoneOffset.of("-03:00"));
+    public long tamanhoCache() {
+        return tokensVerificados.estimatedSize();
+    }
+
+    private Timer timerValidacao(String origem, String resultado) {
+        return Timer.builder("forum.token.validacao")
+                .description("Tempo de validação do token JWT")
+                .tag("origem", origem)
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    private static void registrar(Timer timer, long inicio) {
+        timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Calcula o SHA-256 do token, usado como chave do cache para não manter os
+     * tokens em memória.
+     *
+     * @param token o token JWT
+     * @return o digest do token em Base64
+     */
+    private String calcularDigest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível na JVM", e);
+        }
+    }
+
+    /**
+     * Política de expiração que remove cada token do cache no instante do seu
+     * claim "exp".
+     */
+    private static class ExpiracaoToken implements Expiry<String, TokenVerificado> {
+
+        @Override
+        public long expireAfterCreate(String chave, TokenVerificado token, long tempoAtual) {
+            return Math.max(0, Duration.between(Instant.now(), token.expiraEm()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, TokenVerificado token, long tempoAtual, long duracaoAtual) {
+            return expireAfterCreate(chave, token, tempoAtual);
+        }
+
+        @Override
+        public long expireAfterRead(String chave, TokenVerificado token, long tempoAtual, long duracaoAtual) {
+            return duracaoAtual;
+        }
     }
 }
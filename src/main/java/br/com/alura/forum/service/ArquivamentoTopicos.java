@@ -0,0 +1,154 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.domain.topico.StatusTopico;
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
+import br.com.alura.forum.repository.TopicoArquivoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Move periodicamente os tópicos FECHADO e SOLUCIONADO antigos de topicos
+ * para topicos_arquivados, mantendo a tabela dos tópicos ativos (e os índices
+ * das listagens) pequena.
+ *
+ * Cada lote é movido na sua própria transação curta, com uma pausa entre os
+ * lotes e um número máximo de lotes por execução, para que o arquivamento
+ * nunca mantenha bloqueios longos nem concorra com as requisições por muito
+ * tempo. Um tópico é arquivado quando foi criado e alterado pela última vez
+ * antes da idade mínima configurada.
+ *
+ * Os tópicos arquivados continuam disponíveis em GET /topicos/{id}, somente
+ * para leitura; cada um gera um evento ARQUIVADO após o commit do lote.
+ */
+@Service
+@ConditionalOnProperty(name = "api.topicos.arquivamento.habilitado", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ArquivamentoTopicos {
+
+    private static final Set<StatusTopico> STATUS_ARQUIVADOS = EnumSet.of(StatusTopico.FECHADO, StatusTopico.SOLUCIONADO);
+
+    private final TopicoArquivoRepository topicoArquivoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transacaoLote;
+    private final Counter arquivados;
+    private final long idadeMinimaDias;
+    private final int tamanhoLote;
+    private final int maximoLotes;
+    private final long pausaMs;
+
+    public ArquivamentoTopicos(
+            TopicoArquivoRepository topicoArquivoRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${api.topicos.arquivamento.idade-minima-dias:180}") long idadeMinimaDias,
+            @Value("${api.topicos.arquivamento.tamanho-lote:100}") int tamanhoLote,
+            @Value("${api.topicos.arquivamento.max-lotes:50}") int maximoLotes,
+            @Value("${api.topicos.arquivamento.pausa-ms:500}") long pausaMs) {
+
+        this.topicoArquivoRepository = topicoArquivoRepository;
+        this.eventPublisher = eventPublisher;
+        this.idadeMinimaDias = idadeMinimaDias;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.maximoLotes = Math.max(1, maximoLotes);
+        this.pausaMs = pausaMs;
+
+        // Leitura e escrita: com réplica de leitura, o lote é selecionado e
+        // movido na primária
+        this.transacaoLote = new TransactionTemplate(transactionManager);
+        this.transacaoLote.setTimeout(30);
+
+        this.arquivados = Counter.builder("forum.topicos.arquivados")
+                .description("Tópicos movidos para topicos_arquivados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Arquiva até max-lotes lotes. O que restar fica para a próxima execução.
+     */
+    @Scheduled(initialDelayString = "${api.topicos.arquivamento.intervalo-ms:3600000}",
+            fixedDelayString = "${api.topicos.arquivamento.intervalo-ms:3600000}")
+    public void arquivar() {
+        LocalDateTime limite = LocalDateTime.now().minusDays(idadeMinimaDias);
+        long inicio = System.nanoTime();
+        int total = 0;
+
+        try {
+            for (int lote = 0; lote < maximoLotes; lote++) {
+                if (lote > 0 && !pausar()) {
+                    break;
+                }
+
+                List<Long> ids = transacaoLote.execute(status ->
+                        topicoArquivoRepository.findIdsParaArquivar(STATUS_ARQUIVADOS, limite, tamanhoLote));
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+
+                total += arquivarLote(ids, limite);
+                if (ids.size() < tamanhoLote) {
+                    break;
+                }
+            }
+
+        } catch (DataAccessException e) {
+            // Por exemplo, outra instância arquivando os mesmos tópicos: o
+            // lote é desfeito e retomado na próxima execução
+            log.warn("Arquivamento de tópicos interrompido. Arquivados: {}, Erro: {}",
+                    total, e.getMostSpecificCause().getMessage());
+        }
+
+        if (total > 0) {
+            log.info("Tópicos arquivados. Quantidade: {}, Limite: {}, Tempo: {} ms",
+                    total, limite.truncatedTo(ChronoUnit.SECONDS), (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    private int arquivarLote(List<Long> ids, LocalDateTime limite) {
+        List<DetalhesTopicoDto> movidos = transacaoLote.execute(status -> {
+            List<DetalhesTopicoDto> topicos = topicoArquivoRepository.arquivar(
+                    ids, STATUS_ARQUIVADOS, limite, LocalDateTime.now());
+
+            // Entregues aos ouvintes após o commit do lote
+            topicos.forEach(topico -> eventPublisher.publishEvent(TopicoAlteradoEvent.arquivado(topico)));
+            return topicos;
+        });
+
+        int quantidade = movidos == null ? 0 : movidos.size();
+        arquivados.increment(quantidade);
+        log.debug("Lote de tópicos arquivado. Candidatos: {}, Arquivados: {}", ids.size(), quantidade);
+        return quantidade;
+    }
+
+    /**
+     * @return false se a thread foi interrompida (encerramento da aplicação)
+     */
+    private boolean pausar() {
+        if (pausaMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
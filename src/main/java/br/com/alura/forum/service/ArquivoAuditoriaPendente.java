@@ -0,0 +1,121 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.domain.topico.RegistroAuditoriaTopico;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Arquivo NDJSON (um registro JSON por linha) com os registros de auditoria
+ * que não puderam ser gravados no banco: fila cheia, falha do banco ou
+ * encerramento da aplicação.
+ *
+ * Para reprocessar, o arquivo é renomeado para o sufixo ".reprocessando";
+ * novos registros continuam sendo acrescentados ao arquivo original. O arquivo
+ * renomeado só é removido depois de gravado no banco.
+ */
+@Slf4j
+class ArquivoAuditoriaPendente {
+
+    private final Path arquivo;
+    private final Path reprocessando;
+    private final ObjectMapper objectMapper;
+
+    ArquivoAuditoriaPendente(Path arquivo, ObjectMapper objectMapper) {
+        this.arquivo = arquivo.toAbsolutePath();
+        this.reprocessando = this.arquivo.resolveSibling(this.arquivo.getFileName() + ".reprocessando");
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Acrescenta os registros ao arquivo e força a gravação em disco.
+     *
+     * @param registros os registros a preservar
+     * @throws UncheckedIOException se o arquivo não puder ser gravado
+     */
+    synchronized void acrescentar(Collection<RegistroAuditoriaTopico> registros) {
+        if (registros.isEmpty()) {
+            return;
+        }
+
+        StringBuilder linhas = new StringBuilder(registros.size() * 512);
+        for (RegistroAuditoriaTopico registro : registros) {
+            try {
+                linhas.append(objectMapper.writeValueAsString(registro)).append('\n');
+            } catch (JsonProcessingException e) {
+                log.error("Registro de auditoria descartado: falha ao serializar. Tópico: {}", registro.topicoId(), e);
+            }
+        }
+
+        try {
+            Files.createDirectories(arquivo.getParent());
+            try (FileOutputStream saida = new FileOutputStream(arquivo.toFile(), true)) {
+                saida.write(linhas.toString().getBytes(StandardCharsets.UTF_8));
+                saida.getFD().sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar " + arquivo, e);
+        }
+    }
+
+    /**
+     * Separa os registros pendentes para reprocessamento. Se um
+     * reprocessamento anterior falhou, devolve os registros dele.
+     *
+     * @return os registros a reprocessar, ou uma lista vazia
+     * @throws UncheckedIOException se o arquivo não puder ser lido
+     */
+    synchronized List<RegistroAuditoriaTopico> separarParaReprocessar() {
+        try {
+            if (!Files.exists(reprocessando)) {
+                if (!Files.exists(arquivo)) {
+                    return List.of();
+                }
+                Files.move(arquivo, reprocessando, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            List<RegistroAuditoriaTopico> registros = new ArrayList<>();
+            for (String linha : Files.readAllLines(reprocessando, StandardCharsets.UTF_8)) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                try {
+                    registros.add(objectMapper.readValue(linha, RegistroAuditoriaTopico.class));
+                } catch (JsonProcessingException e) {
+                    // Linha truncada por uma queda durante a gravação
+                    log.warn("Linha inválida ignorada em {}: {}", reprocessando, e.getOriginalMessage());
+                }
+            }
+            return registros;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler " + reprocessando, e);
+        }
+    }
+
+    /**
+     * Remove o arquivo em reprocessamento, após os registros serem gravados.
+     */
+    synchronized void concluirReprocessamento() {
+        try {
+            Files.deleteIfExists(reprocessando);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao remover " + reprocessando, e);
+        }
+    }
+
+    Path caminho() {
+        return arquivo;
+    }
+}
@@ -0,0 +1,248 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.domain.topico.RegistroAuditoriaTopico;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
+import br.com.alura.forum.repository.AuditoriaTopicoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Auditoria das alterações de tópicos em topicos_auditoria, fora do caminho
+ * da requisição (write-behind).
+ *
+ * Cada alteração confirmada vira um registro em uma fila em memória limitada;
+ * uma thread gravadora consome a fila e grava os registros em lotes JDBC.
+ * A requisição só paga o custo de enfileirar:
+ * <ul>
+ *   <li>com a fila cheia, aguarda no máximo api.auditoria.fila.espera-maxima-ms
+ *   por espaço e, esgotado o prazo, grava o registro no arquivo de pendentes
+ *   (NDJSON, sincronizado em disco);</li>
+ *   <li>lotes que falham no banco também vão para o arquivo de pendentes, que
+ *   é reprocessado quando a fila está ociosa;</li>
+ *   <li>no encerramento, a fila é esvaziada no banco e o que restar após o
+ *   prazo vai para o arquivo de pendentes.</li>
+ * </ul>
+ * A entrega é "ao menos uma vez": um lote gravado no banco pouco antes de uma
+ * queda pode ser reprocessado a partir do arquivo.
+ */
+@Service
+@Slf4j
+public class AuditoriaTopicos {
+
+    private static final long INTERVALO_CONSULTA_FILA_MS = 500;
+    private static final long ESPERA_APOS_FALHA_MS = 30_000;
+
+    private final AuditoriaTopicoRepository auditoriaTopicoRepository;
+    private final TransactionTemplate transacao;
+    private final ArquivoAuditoriaPendente pendentes;
+    private final BlockingQueue<RegistroAuditoriaTopico> fila;
+    private final int tamanhoLote;
+    private final long esperaMaximaFilaMs;
+    private final long esperaEncerramentoMs;
+
+    private final Counter gravadosBanco;
+    private final Counter gravadosArquivo;
+
+    private volatile boolean ativo;
+    private volatile long proximoReprocessamento;
+    private Thread gravadora;
+
+    public AuditoriaTopicos(
+            AuditoriaTopicoRepository auditoriaTopicoRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${api.auditoria.fila.capacidade:10000}") int capacidadeFila,
+            @Value("${api.auditoria.fila.espera-maxima-ms:5}") long esperaMaximaFilaMs,
+            @Value("${api.auditoria.lote.tamanho:200}") int tamanhoLote,
+            @Value("${api.auditoria.encerramento.espera-maxima-ms:10000}") long esperaEncerramentoMs,
+            @Value("${api.auditoria.arquivo-pendentes:auditoria-pendente.ndjson}") String arquivoPendentes) {
+
+        this.auditoriaTopicoRepository = auditoriaTopicoRepository;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.pendentes = new ArquivoAuditoriaPendente(Path.of(arquivoPendentes), objectMapper);
+        this.fila = new ArrayBlockingQueue<>(Math.max(1, capacidadeFila));
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.esperaMaximaFilaMs = esperaMaximaFilaMs;
+        this.esperaEncerramentoMs = esperaEncerramentoMs;
+
+        Gauge.builder("forum.auditoria.fila", fila, BlockingQueue::size)
+                .description("Registros de auditoria aguardando gravação")
+                .register(meterRegistry);
+        this.gravadosBanco = contador(meterRegistry, "banco");
+        this.gravadosArquivo = contador(meterRegistry, "arquivo");
+    }
+
+    @PostConstruct
+    void iniciar() {
+        ativo = true;
+        gravadora = new Thread(this::executar, "auditoria-topicos");
+        gravadora.setDaemon(true);
+        gravadora.start();
+
+        log.info("Auditoria de tópicos iniciada. Capacidade da fila: {}, Tamanho do lote: {}, Pendentes: {}",
+                fila.remainingCapacity(), tamanhoLote, pendentes.caminho());
+    }
+
+    /**
+     * Enfileira a auditoria de uma alteração confirmada. Executado na thread
+     * da requisição, após o commit, para capturar o usuário autenticado.
+     *
+     * @param evento o evento de alteração do tópico
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarTopico(TopicoAlteradoEvent evento) {
+        RegistroAuditoriaTopico registro = RegistroAuditoriaTopico.of(evento, usuarioAutenticado());
+
+        try {
+            if (ativo && fila.offer(registro, esperaMaximaFilaMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.warn("Fila de auditoria cheia; registro gravado no arquivo de pendentes. Tópico: {}", evento.id());
+        preservar(List.of(registro));
+    }
+
+    /**
+     * Esvazia a fila no banco antes de o DataSource ser fechado. O que não for
+     * gravado dentro do prazo é preservado no arquivo de pendentes.
+     */
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        ativo = false;
+        gravadora.join(esperaEncerramentoMs);
+
+        List<RegistroAuditoriaTopico> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        if (!restantes.isEmpty()) {
+            log.warn("Encerramento da auditoria excedeu o prazo. Registros preservados em arquivo: {}",
+                    restantes.size());
+            preservar(restantes);
+        }
+        log.info("Auditoria de tópicos encerrada");
+    }
+
+    /**
+     * Laço da thread gravadora: grava a fila em lotes enquanto a aplicação
+     * estiver ativa e, no encerramento, até esvaziá-la.
+     */
+    private void executar() {
+        List<RegistroAuditoriaTopico> lote = new ArrayList<>(tamanhoLote);
+
+        while (ativo || !fila.isEmpty()) {
+            try {
+                RegistroAuditoriaTopico primeiro = fila.poll(INTERVALO_CONSULTA_FILA_MS, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    reprocessarPendentes();
+                    continue;
+                }
+
+                lote.add(primeiro);
+                fila.drainTo(lote, tamanhoLote - 1);
+                gravar(lote);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Erro na gravação da auditoria de tópicos", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravar(List<RegistroAuditoriaTopico> lote) {
+        try {
+            auditoriaTopicoRepository.inserir(lote);
+            gravadosBanco.increment(lote.size());
+
+        } catch (DataAccessException e) {
+            log.error("Falha ao gravar lote de auditoria; registros preservados em arquivo. Registros: {}",
+                    lote.size(), e);
+            proximoReprocessamento = System.currentTimeMillis() + ESPERA_APOS_FALHA_MS;
+            preservar(lote);
+        }
+    }
+
+    /**
+     * Grava no banco os registros do arquivo de pendentes, em uma única
+     * transação: uma falha mantém o arquivo para a próxima tentativa sem
+     * duplicar registros.
+     */
+    private void reprocessarPendentes() {
+        if (System.currentTimeMillis() < proximoReprocessamento) {
+            return;
+        }
+
+        try {
+            List<RegistroAuditoriaTopico> registros = pendentes.separarParaReprocessar();
+            if (registros.isEmpty()) {
+                pendentes.concluirReprocessamento();
+                return;
+            }
+
+            transacao.executeWithoutResult(status -> {
+                for (int inicio = 0; inicio < registros.size(); inicio += tamanhoLote) {
+                    auditoriaTopicoRepository.inserir(
+                            registros.subList(inicio, Math.min(inicio + tamanhoLote, registros.size())));
+                }
+            });
+            pendentes.concluirReprocessamento();
+            gravadosBanco.increment(registros.size());
+            log.info("Registros de auditoria pendentes gravados. Registros: {}", registros.size());
+
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.error("Falha ao reprocessar registros de auditoria pendentes", e);
+            proximoReprocessamento = System.currentTimeMillis() + ESPERA_APOS_FALHA_MS;
+        }
+    }
+
+    private void preservar(List<RegistroAuditoriaTopico> registros) {
+        try {
+            pendentes.acrescentar(registros);
+            gravadosArquivo.increment(registros.size());
+
+        } catch (UncheckedIOException e) {
+            log.error("Registros de auditoria perdidos: falha ao gravar o arquivo de pendentes. Registros: {}",
+                    registros.size(), e);
+        }
+    }
+
+    private static String usuarioAutenticado() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null && autenticacao.isAuthenticated() ? autenticacao.getName() : null;
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String destino) {
+        return Counter.builder("forum.auditoria.registros")
+                .description("Registros de auditoria gravados, por destino")
+                .tag("destino", destino)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.repository.TopicoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Busca textual com o índice FULLTEXT ft_topicos_titulo_mensagem do MySQL, em
+ * modo de linguagem natural. A relevância é a calculada pelo próprio MySQL.
+ */
+@Component
+@ConditionalOnProperty(name = "api.topicos.busca.modo", havingValue = "mysql", matchIfMissing = true)
+@RequiredArgsConstructor
+public class BuscaFullTextMySql implements MotorBuscaTopicos {
+
+    private final TopicoRepository topicoRepository;
+
+    @Override
+    public Page<ResultadoBusca> buscar(String consulta, Pageable pageable) {
+        // A ordenação é sempre por relevância, definida na própria consulta
+        Pageable semOrdenacao = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+
+        return topicoRepository.buscarPorTexto(consulta, semOrdenacao)
+                .map(r -> new ResultadoBusca(r.getId(), r.getRelevancia()));
+    }
+}
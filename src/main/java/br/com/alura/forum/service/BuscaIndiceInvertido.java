@@ -0,0 +1,235 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.dto.topico.ConteudoTopicoDto;
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
+import br.com.alura.forum.repository.TopicoRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Busca textual com um índice invertido mantido em memória, para ambientes sem
+ * MySQL (perfil h2 e testes).
+ *
+ * O índice é carregado do banco na inicialização e atualizado pelos eventos de
+ * criação, atualização e remoção publicados pelo TopicoService após o commit.
+ * Uma consulta percorre apenas as listas de ocorrência dos seus termos, sem
+ * varrer todos os tópicos, e ordena os resultados por BM25.
+ */
+@Component
+@ConditionalOnProperty(name = "api.topicos.busca.modo", havingValue = "memoria")
+@RequiredArgsConstructor
+@Slf4j
+public class BuscaIndiceInvertido implements MotorBuscaTopicos {
+
+    /** Tamanho mínimo dos termos indexados, como o innodb_ft_min_token_size. */
+    private static final int TAMANHO_MINIMO_TERMO = 3;
+
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    // Parâmetros usuais do BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final TopicoRepository topicoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /** termo -> (ID do tópico -> frequência do termo no tópico) */
+    private final Map<String, Map<Long, Integer>> ocorrencias = new HashMap<>();
+
+    /** ID do tópico -> termos distintos do tópico, para remoção */
+    private final Map<Long, Set<String>> termosPorTopico = new HashMap<>();
+
+    /** ID do tópico -> quantidade de termos do tópico */
+    private final Map<Long, Integer> tamanhos = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalTermos;
+
+    /**
+     * Carrega o índice com os tópicos existentes antes de a aplicação aceitar
+     * requisições.
+     */
+    @PostConstruct
+    void carregar() {
+        long inicio = System.currentTimeMillis();
+
+        transactionTemplate.execute(status -> {
+            try (Stream<ConteudoTopicoDto> conteudos = topicoRepository.streamConteudos()) {
+                conteudos.forEach(c -> indexar(c.id(), c.titulo(), c.mensagem()));
+            }
+            return null;
+        });
+
+        log.info("Índice invertido de tópicos carregado. Tópicos: {}, Termos: {}, Tempo: {} ms",
+                tamanhos.size(), ocorrencias.size(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Atualiza o índice após o commit de uma alteração de tópico.
+     *
+     * @param evento o evento de alteração
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarTopico(TopicoAlteradoEvent evento) {
+        DetalhesTopicoDto atual = evento.atual();
+
+        if (atual == null) {
+            remover(evento.id());
+        } else {
+            indexar(atual.id(), atual.titulo(), atual.mensagem());
+        }
+    }
+
+    @Override
+    public Page<ResultadoBusca> buscar(String consulta, Pageable pageable) {
+        Set<String> termos = new LinkedHashSet<>(tokenizar(consulta));
+        if (termos.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Map<Long, Double> pontuacoes = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int totalTopicos = tamanhos.size();
+            double tamanhoMedio = totalTopicos == 0 ? 0 : (double) totalTermos / totalTopicos;
+
+            for (String termo : termos) {
+                Map<Long, Integer> topicos = ocorrencias.get(termo);
+                if (topicos == null) {
+                    continue;
+                }
+
+                double idf = Math.log(1 + (totalTopicos - topicos.size() + 0.5) / (topicos.size() + 0.5));
+
+                topicos.forEach((id, frequencia) -> {
+                    double normalizacao = K1 * (1 - B + B * tamanhos.get(id) / tamanhoMedio);
+                    double pontuacao = idf * frequencia * (K1 + 1) / (frequencia + normalizacao);
+                    pontuacoes.merge(id, pontuacao, Double::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return paginar(pontuacoes, pageable);
+    }
+
+    /**
+     * Seleciona a página pedida mantendo apenas os offset + size melhores
+     * resultados em um heap, sem ordenar todos os candidatos.
+     */
+    private Page<ResultadoBusca> paginar(Map<Long, Double> pontuacoes, Pageable pageable) {
+        Comparator<ResultadoBusca> ordem = Comparator
+                .comparingDouble(ResultadoBusca::relevancia)
+                .thenComparing(ResultadoBusca::id);
+
+        long limite = pageable.getOffset() + pageable.getPageSize();
+        PriorityQueue<ResultadoBusca> melhores = new PriorityQueue<>(ordem);
+
+        pontuacoes.forEach((id, pontuacao) -> {
+            melhores.offer(new ResultadoBusca(id, pontuacao));
+            if (melhores.size() > limite) {
+                melhores.poll();
+            }
+        });
+
+        List<ResultadoBusca> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(ordem.reversed());
+
+        int inicio = (int) Math.min(pageable.getOffset(), ordenados.size());
+        return new PageImpl<>(ordenados.subList(inicio, ordenados.size()), pageable, pontuacoes.size());
+    }
+
+    private void indexar(Long id, String titulo, String mensagem) {
+        List<String> termos = tokenizar(titulo + " " + mensagem);
+        Map<String, Integer> frequencias = new HashMap<>();
+        termos.forEach(t -> frequencias.merge(t, 1, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            removerSemLock(id);
+
+            frequencias.forEach((termo, frequencia) ->
+                    ocorrencias.computeIfAbsent(termo, t -> new HashMap<>()).put(id, frequencia));
+            termosPorTopico.put(id, frequencias.keySet());
+            tamanhos.put(id, termos.size());
+            totalTermos += termos.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            removerSemLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removerSemLock(Long id) {
+        Set<String> termos = termosPorTopico.remove(id);
+        if (termos == null) {
+            return;
+        }
+
+        for (String termo : termos) {
+            Map<Long, Integer> topicos = ocorrencias.get(termo);
+            topicos.remove(id);
+            if (topicos.isEmpty()) {
+                ocorrencias.remove(termo);
+            }
+        }
+        totalTermos -= tamanhos.remove(id);
+    }
+
+    /**
+     * Divide o texto em termos minúsculos e sem acentos, descartando os muito
+     * curtos.
+     */
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        String normalizado = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> termos = new ArrayList<>();
+        for (String termo : SEPARADOR.split(normalizado)) {
+            if (termo.length() >= TAMANHO_MINIMO_TERMO) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+}
@@ -0,0 +1,268 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
+import br.com.alura.forum.repository.TopicoArquivoRepository;
+import br.com.alura.forum.repository.TopicoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache em memória dos dados dos tópicos lidos por ID, entre o TopicoService
+ * e os repositórios. Guarda o DTO imutável (e não a entidade gerenciada),
+ * lido por projeção de topicos ou, se o tópico estiver arquivado, de
+ * topicos_arquivados. Atende às leituras que não passam pelo cache de
+ * respostas: a versão das requisições condicionais (GET com If-None-Match e
+ * PUT com If-Match) e o estado anterior do PATCH.
+ *
+ * O limite é o tamanho aproximado em bytes, calculado principalmente pela
+ * mensagem. A política do Caffeine (W-TinyLFU) só admite uma entrada nova se
+ * ela for mais frequente que as que precisaria remover: poucas mensagens
+ * enormes, lidas uma vez, não expulsam milhares de tópicos pequenos e
+ * populares.
+ *
+ * As faltas são lidas em transação somente leitura (na réplica, se
+ * habilitada). Para que uma leitura atrasada não substitua dados mais novos,
+ * após o commit de uma alteração nesta instância o cache recebe os dados
+ * novos do próprio evento, uma entrada só é substituída por outra de versão
+ * maior e os tópicos removidos ficam marcados até o fim do TTL. Alterações
+ * feitas em outras instâncias ficam invisíveis até o TTL; quem depende da
+ * versão exata para recusar uma requisição (409 ou 412) deve confirmá-la com
+ * {@link #recarregar(Long)}.
+ *
+ * Desabilitado, todas as leituras vão ao banco (útil para comparar carga com
+ * e sem o cache).
+ */
+@Component
+@Slf4j
+public class CacheDadosTopicos {
+
+    /** Bytes aproximados do DTO além dos textos (objetos, datas, enum). */
+    private static final int TAMANHO_FIXO_ENTRADA = 160;
+
+    private final TopicoRepository topicoRepository;
+    private final TopicoArquivoRepository topicoArquivoRepository;
+    private final TransactionTemplate transacaoLeitura;
+    private final boolean habilitado;
+    private final Cache<Long, TopicoEmCache> topicos;
+
+    public CacheDadosTopicos(
+            TopicoRepository topicoRepository,
+            TopicoArquivoRepository topicoArquivoRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${api.topicos.cache-dados.habilitado:true}") boolean habilitado,
+            @Value("${api.topicos.cache-dados.max-bytes:33554432}") long maximoBytes,
+            @Value("${api.topicos.cache-dados.ttl-seconds:300}") long ttlSegundos) {
+
+        this.topicoRepository = topicoRepository;
+        this.topicoArquivoRepository = topicoArquivoRepository;
+        this.habilitado = habilitado;
+
+        // Participa da transação de quem chama, se houver; sem ela, abre uma
+        // somente leitura, que o roteamento pode enviar à réplica
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+
+        this.topicos = Caffeine.newBuilder()
+                .maximumWeight(maximoBytes)
+                .weigher((Long id, TopicoEmCache topico) -> topico.tamanho())
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+
+        log.info("Cache de dados de tópicos {}. Limite: {} bytes", habilitado ? "habilitado" : "desabilitado", maximoBytes);
+    }
+
+    /**
+     * Busca o tópico pelo ID, ativo ou arquivado, consultando o banco apenas
+     * se ele não estiver em cache.
+     *
+     * @param id o ID do tópico
+     * @return Optional contendo o tópico, se encontrado
+     */
+    public Optional<DetalhesTopicoDto> buscar(Long id) {
+        return obter(id).map(TopicoEmCache::detalhes);
+    }
+
+    /**
+     * Busca o tópico pelo ID entre os ativos, consultando o banco apenas se
+     * ele não estiver em cache.
+     *
+     * @param id o ID do tópico
+     * @return Optional contendo o tópico, se existir e não estiver arquivado
+     */
+    public Optional<DetalhesTopicoDto> buscarAtivo(Long id) {
+        return obter(id).filter(topico -> !topico.arquivado()).map(TopicoEmCache::detalhes);
+    }
+
+    /**
+     * Lê o tópico ativo no banco, sem consultar o cache, e atualiza a entrada.
+     * Chamado dentro de uma transação de escrita, a leitura é feita na
+     * primária.
+     *
+     * @param id o ID do tópico
+     * @return Optional contendo o tópico, se existir e não estiver arquivado
+     */
+    public Optional<DetalhesTopicoDto> recarregar(Long id) {
+        return carregar(id).filter(topico -> !topico.arquivado()).map(TopicoEmCache::detalhes);
+    }
+
+    /**
+     * Aplica a alteração ao cache após o commit: a atualização grava os dados
+     * novos, o arquivamento marca a entrada e a remoção deixa o tópico
+     * marcado como removido.
+     *
+     * Executado antes dos demais ouvintes de cache: o cache de respostas é
+     * recarregado a partir deste, que já deve ter os dados novos.
+     *
+     * @param evento o evento de alteração
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarTopico(TopicoAlteradoEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+
+        switch (evento.tipo()) {
+            case ATUALIZADO -> armazenar(evento.id(), TopicoEmCache.ativo(evento.atual()));
+            case ARQUIVADO -> armazenar(evento.id(), TopicoEmCache.arquivado(evento.anterior()));
+            case REMOVIDO -> topicos.put(evento.id(), TopicoEmCache.REMOVIDO);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Retorna as estatísticas do cache (acertos, faltas, remoções).
+     *
+     * @return as estatísticas acumuladas do cache
+     */
+    public CacheStats estatisticas() {
+        return topicos.stats();
+    }
+
+    /**
+     * Retorna a quantidade aproximada de tópicos presentes no cache.
+     *
+     * @return o tamanho estimado do cache
+     */
+    public long tamanho() {
+        return topicos.estimatedSize();
+    }
+
+    /**
+     * Retorna o tamanho aproximado, em bytes, dos tópicos presentes no cache.
+     *
+     * @return o peso atual do cache
+     */
+    public long bytes() {
+        return topicos.policy().eviction()
+                .map(limite -> limite.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    private Optional<TopicoEmCache> obter(Long id) {
+        if (habilitado) {
+            TopicoEmCache topico = topicos.getIfPresent(id);
+            if (topico != null) {
+                return topico.removido() ? Optional.empty() : Optional.of(topico);
+            }
+        }
+        return carregar(id);
+    }
+
+    /**
+     * Lê o tópico no banco e o armazena, a menos que o cache já tenha uma
+     * versão mais nova ou a marca de removido. Tópicos inexistentes não são
+     * armazenados.
+     */
+    private Optional<TopicoEmCache> carregar(Long id) {
+        Optional<TopicoEmCache> topico = transacaoLeitura.execute(status -> topicoRepository.findDetalhesById(id)
+                .map(TopicoEmCache::ativo)
+                .or(() -> topicoArquivoRepository.findDetalhesById(id).map(TopicoEmCache::arquivado)));
+
+        if (habilitado && topico.isPresent()) {
+            TopicoEmCache armazenado = armazenar(id, topico.get());
+            return armazenado.removido() ? Optional.empty() : Optional.of(armazenado);
+        }
+        return topico;
+    }
+
+    /**
+     * @return a entrada que ficou no cache: a nova ou a existente, se esta for
+     *         mais recente
+     */
+    private TopicoEmCache armazenar(Long id, TopicoEmCache novo) {
+        return topicos.asMap().merge(id, novo, TopicoEmCache::maisRecente);
+    }
+
+    /**
+     * Entrada do cache. Sem detalhes, marca um tópico removido: os IDs não
+     * são reutilizados, então a marca vale até expirar.
+     */
+    private record TopicoEmCache(DetalhesTopicoDto detalhes, boolean arquivado) {
+
+        static final TopicoEmCache REMOVIDO = new TopicoEmCache(null, false);
+
+        static TopicoEmCache ativo(DetalhesTopicoDto detalhes) {
+            return new TopicoEmCache(detalhes, false);
+        }
+
+        static TopicoEmCache arquivado(DetalhesTopicoDto detalhes) {
+            return new TopicoEmCache(detalhes, true);
+        }
+
+        boolean removido() {
+            return detalhes == null;
+        }
+
+        /**
+         * A remoção prevalece; entre duas leituras, a de versão maior. O
+         * arquivamento não muda a versão e não é desfeito, então prevalece
+         * sobre a mesma versão ativa.
+         */
+        static TopicoEmCache maisRecente(TopicoEmCache existente, TopicoEmCache novo) {
+            if (existente.removido() || novo.removido()) {
+                return REMOVIDO;
+            }
+
+            int comparacao = Long.compare(existente.detalhes.versao(), novo.detalhes.versao());
+            if (comparacao != 0) {
+                return comparacao > 0 ? existente : novo;
+            }
+            return existente.arquivado ? existente : novo;
+        }
+
+        /**
+         * Tamanho aproximado em memória: 2 bytes por caractere dos textos
+         * mais a parte fixa do objeto.
+         */
+        int tamanho() {
+            if (removido()) {
+                return TAMANHO_FIXO_ENTRADA;
+            }
+
+            long caracteres = (long) comprimento(detalhes.titulo()) + comprimento(detalhes.mensagem())
+                    + comprimento(detalhes.autor()) + comprimento(detalhes.curso());
+            return (int) Math.min(Integer.MAX_VALUE, TAMANHO_FIXO_ENTRADA + 2 * caracteres);
+        }
+
+        private static int comprimento(String texto) {
+            return texto == null ? 0 : texto.length();
+        }
+    }
+}
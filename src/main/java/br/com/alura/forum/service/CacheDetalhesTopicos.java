@@ -0,0 +1,215 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.event.TipoAlteracaoTopico;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache das respostas de GET /topicos/{id} já serializadas: o JSON em UTF-8
+ * e, para respostas grandes, também a versão comprimida em gzip. Um acerto é
+ * escrito na resposta sem consultar o banco e sem passar pelo Jackson.
+ *
+ * O limite é o total de bytes armazenados (e não a quantidade de entradas),
+ * porque o tamanho de uma resposta acompanha o da mensagem do tópico.
+ *
+ * As entradas são removidas após o commit de cada atualização ou remoção
+ * nesta instância; em implantações com várias instâncias, o TTL limita o
+ * tempo em que uma alteração feita em outra instância pode ficar invisível.
+ */
+@Component
+@Slf4j
+public class CacheDetalhesTopicos {
+
+    private final LeiturasCompartilhadasTopicos leiturasCompartilhadas;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, DetalhesSerializados> respostas;
+    private final int tamanhoMinimoGzip;
+
+    /**
+     * Incrementado a cada invalidação. Uma resposta lida do banco só é
+     * armazenada se nenhuma invalidação ocorreu durante a leitura; caso
+     * contrário, ela pode ser anterior à alteração que acabou de ser removida.
+     */
+    private final AtomicLong invalidacoes = new AtomicLong();
+
+    public CacheDetalhesTopicos(
+            LeiturasCompartilhadasTopicos leiturasCompartilhadas,
+            ObjectMapper objectMapper,
+            @Value("${api.topicos.cache-respostas.max-bytes:67108864}") long maximoBytes,
+            @Value("${api.topicos.cache-respostas.ttl-seconds:300}") long ttlSegundos,
+            @Value("${api.topicos.cache-respostas.gzip-minimo-bytes:2048}") int tamanhoMinimoGzip) {
+
+        this.leiturasCompartilhadas = leiturasCompartilhadas;
+        this.objectMapper = objectMapper;
+        this.tamanhoMinimoGzip = tamanhoMinimoGzip;
+        this.respostas = Caffeine.newBuilder()
+                .maximumWeight(maximoBytes)
+                .weigher((Long id, DetalhesSerializados resposta) -> resposta.bytes())
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retorna a resposta serializada do tópico, se estiver em cache.
+     *
+     * @param id o ID do tópico
+     * @return a resposta serializada, ou null
+     */
+    public DetalhesSerializados obterSeEmCache(Long id) {
+        return respostas.getIfPresent(id);
+    }
+
+    /**
+     * Retorna a resposta serializada do tópico, lendo e serializando o tópico
+     * apenas se ele não estiver em cache.
+     *
+     * @param id o ID do tópico
+     * @return a resposta serializada
+     * @throws br.com.alura.forum.exception.TopicoNaoEncontradoException se o tópico não existir
+     */
+    public DetalhesSerializados obter(Long id) {
+        DetalhesSerializados resposta = respostas.getIfPresent(id);
+        return resposta != null ? resposta : carregar(id);
+    }
+
+    /**
+     * Lê e serializa o tópico e armazena a resposta, sem consultar o cache.
+     * Para quem já verificou com {@link #obterSeEmCache(Long)}. Faltas
+     * simultâneas do mesmo tópico compartilham uma única leitura no banco.
+     *
+     * @param id o ID do tópico
+     * @return a resposta serializada
+     * @throws br.com.alura.forum.exception.TopicoNaoEncontradoException se o tópico não existir
+     */
+    public DetalhesSerializados carregar(Long id) {
+        long invalidacoesAntes = invalidacoes.get();
+        DetalhesSerializados resposta = serializar(leiturasCompartilhadas.obterTopicoById(id));
+
+        if (invalidacoes.get() == invalidacoesAntes) {
+            respostas.put(id, resposta);
+        }
+        return resposta;
+    }
+
+    /**
+     * Remove a resposta do tópico após o commit de uma atualização ou remoção.
+     * O arquivamento não altera o conteúdo e mantém a entrada.
+     *
+     * Executado depois da atualização do cache de dados de tópicos e do
+     * descarte das leituras compartilhadas em andamento, de onde vêm as
+     * próximas cargas.
+     *
+     * @param evento o evento de alteração
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE + 2)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarTopico(TopicoAlteradoEvent evento) {
+        if (evento.tipo() == TipoAlteracaoTopico.CRIADO || evento.tipo() == TipoAlteracaoTopico.ARQUIVADO) {
+            return;
+        }
+
+        invalidacoes.incrementAndGet();
+        respostas.invalidate(evento.id());
+    }
+
+    /**
+     * Retorna as estatísticas do cache (acertos, faltas, remoções).
+     *
+     * @return as estatísticas acumuladas do cache
+     */
+    public CacheStats estatisticas() {
+        return respostas.stats();
+    }
+
+    /**
+     * Retorna a quantidade aproximada de respostas presentes no cache.
+     *
+     * @return o tamanho estimado do cache
+     */
+    public long tamanho() {
+        return respostas.estimatedSize();
+    }
+
+    /**
+     * Retorna o total de bytes das respostas presentes no cache.
+     *
+     * @return o peso atual do cache, em bytes
+     */
+    public long bytes() {
+        return respostas.policy().eviction()
+                .map(limite -> limite.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    private DetalhesSerializados serializar(DetalhesTopicoDto topico) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(topico);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o tópico " + topico.id(), e);
+        }
+
+        byte[] gzip = json.length >= tamanhoMinimoGzip && tamanhoMinimoGzip > 0 ? comprimir(json) : null;
+        if (gzip != null && gzip.length >= json.length) {
+            gzip = null;
+        }
+
+        return new DetalhesSerializados(topico.id(), topico.versao(), topico.dataAtualizacao(), json, gzip);
+    }
+
+    private static byte[] comprimir(byte[] json) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    /**
+     * Resposta de GET /topicos/{id} pronta para ser escrita.
+     *
+     * @param id              o ID do tópico
+     * @param versao          a versão do tópico, para a ETag
+     * @param dataAtualizacao a data da última alteração, para Last-Modified
+     * @param json            o corpo em JSON (UTF-8)
+     * @param gzip            o corpo comprimido, ou null se a resposta for
+     *                        pequena ou não diminuir com a compressão
+     */
+    public record DetalhesSerializados(
+            Long id,
+            Long versao,
+            LocalDateTime dataAtualizacao,
+            byte[] json,
+            byte[] gzip) {
+
+        /**
+         * @return o tamanho aproximado da entrada em memória
+         */
+        int bytes() {
+            return json.length + (gzip == null ? 0 : gzip.length) + 64;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.domain.topico.StatusTopico;
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.dto.topico.EstatisticasTopicosDto;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
+import br.com.alura.forum.repository.TopicoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de tópicos por curso e por status, mantidos em memória para
+ * GET /topicos/estatisticas sem consultar o banco.
+ *
+ * Os contadores são LongAdder, atualizados pelos eventos de criação,
+ * atualização e remoção após o commit. A primeira reconciliação carrega os
+ * valores do banco antes de a aplicação aceitar requisições; as seguintes
+ * corrigem divergências, como alterações feitas por outra instância da
+ * aplicação ou diretamente no banco.
+ */
+@Service
+@Slf4j
+public class EstatisticasTopicos {
+
+    private final TopicoRepository topicoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final Duration intervaloNovaTentativa;
+    private final Counter divergencias;
+
+    private final Map<String, LongAdder> porCurso = new ConcurrentHashMap<>();
+    private final Map<StatusTopico, LongAdder> porStatus = new EnumMap<>(StatusTopico.class);
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Incrementado a cada evento publicado e a cada evento aplicado, para
+     * detectar alterações durante a reconciliação.
+     */
+    private final AtomicLong alteracoes = new AtomicLong();
+
+    /**
+     * Transações com evento publicado e ainda não concluídas. Uma delas pode
+     * já ter feito o commit (e estar nas contagens do banco) sem que o evento
+     * tenha sido aplicado aos contadores.
+     */
+    private final AtomicLong pendentes = new AtomicLong();
+
+    /**
+     * Indica se já há uma nova tentativa de reconciliação agendada.
+     */
+    private final AtomicBoolean novaTentativaAgendada = new AtomicBoolean();
+
+    private volatile LocalDateTime reconciliadoEm;
+
+    public EstatisticasTopicos(
+            TopicoRepository topicoRepository,
+            TransactionTemplate transactionTemplate,
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${api.topicos.estatisticas.nova-tentativa-ms:1000}") long novaTentativaMs) {
+
+        this.topicoRepository = topicoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.intervaloNovaTentativa = Duration.ofMillis(novaTentativaMs);
+
+        // Todas as chaves existem desde o início: o EnumMap é só lido depois daqui
+        for (StatusTopico status : StatusTopico.values()) {
+            porStatus.put(status, new LongAdder());
+        }
+
+        this.divergencias = Counter.builder("forum.topicos.estatisticas.divergencias")
+                .description("Contadores corrigidos pela reconciliação com o banco")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retorna os contadores atuais, sem acessar o banco.
+     *
+     * @return as estatísticas dos tópicos
+     */
+    public EstatisticasTopicosDto obter() {
+        Map<String, Long> cursos = new TreeMap<>();
+        porCurso.forEach((curso, contador) -> {
+            long quantidade = contador.sum();
+            if (quantidade > 0) {
+                cursos.put(curso, quantidade);
+            }
+        });
+
+        Map<StatusTopico, Long> status = new EnumMap<>(StatusTopico.class);
+        porStatus.forEach((chave, contador) -> status.put(chave, Math.max(0, contador.sum())));
+
+        return new EstatisticasTopicosDto(Math.max(0, total.sum()), cursos, status, reconciliadoEm);
+    }
+
+    /**
+     * Registra a alteração como pendente assim que o evento é publicado,
+     * ainda dentro da transação.
+     *
+     * @param evento o evento de alteração
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void aoPublicarAlteracao(TopicoAlteradoEvent evento) {
+        pendentes.incrementAndGet();
+        alteracoes.incrementAndGet();
+    }
+
+    /**
+     * Atualiza os contadores após o commit de uma alteração de tópico.
+     *
+     * @param evento o evento de alteração
+     */
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarTopico(TopicoAlteradoEvent evento) {
+        DetalhesTopicoDto anterior = evento.anterior();
+        DetalhesTopicoDto atual = evento.atual();
+
+        if (anterior != null && atual != null
+                && Objects.equals(anterior.curso(), atual.curso())
+                && anterior.status() == atual.status()) {
+            return;
+        }
+
+        synchronized (this) {
+            if (anterior != null) {
+                contar(anterior, -1);
+            }
+            if (atual != null) {
+                contar(atual, 1);
+            }
+            alteracoes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Encerra a pendência da alteração ao fim da transação, com commit ou
+     * rollback. Executado depois de {@link #aoAlterarTopico}.
+     *
+     * @param evento o evento de alteração
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void aoConcluirAlteracao(TopicoAlteradoEvent evento) {
+        pendentes.decrementAndGet();
+    }
+
+    /**
+     * Carrega os contadores do banco antes de a aplicação aceitar
+     * requisições. Nesse momento ainda não há requisições nem tarefas
+     * agendadas alterando tópicos, então a primeira tentativa não é
+     * descartada.
+     */
+    @PostConstruct
+    void carregar() {
+        reconciliar();
+    }
+
+    /**
+     * Confere os contadores com o banco. Se a conferência for descartada,
+     * uma nova tentativa é agendada para logo em seguida, sem esperar o
+     * próximo ciclo.
+     */
+    @Scheduled(initialDelayString = "${api.topicos.estatisticas.reconciliacao-ms:300000}",
+            fixedDelayString = "${api.topicos.estatisticas.reconciliacao-ms:300000}")
+    public void reconciliar() {
+        if (!tentarReconciliar() && novaTentativaAgendada.compareAndSet(false, true)) {
+            log.debug("Reconciliação das estatísticas de tópicos adiada: alterações durante a contagem");
+            taskScheduler.schedule(() -> {
+                novaTentativaAgendada.set(false);
+                reconciliar();
+            }, Instant.now().plus(intervaloNovaTentativa));
+        }
+    }
+
+    /**
+     * Executa uma conferência. As contagens agrupadas usam apenas os índices
+     * de curso e de status, e a transação de leitura e escrita garante a
+     * consulta na primária mesmo com réplica de leitura.
+     *
+     * Se algum evento for publicado ou aplicado enquanto as consultas
+     * executam, ou se alguma transação com evento ainda não tiver concluído,
+     * não é possível saber se a alteração já está nas contagens; a
+     * conferência é descartada. A verificação e o ajuste são feitos sob o
+     * mesmo bloqueio da aplicação dos eventos.
+     *
+     * @return true se os contadores foram conferidos, false se descartada
+     */
+    private boolean tentarReconciliar() {
+        long alteracoesAntes = alteracoes.get();
+
+        Map<String, Long> cursos = new HashMap<>();
+        Map<StatusTopico, Long> status = new EnumMap<>(StatusTopico.class);
+        transactionTemplate.executeWithoutResult(transacao -> {
+            topicoRepository.contarPorCurso().forEach(c -> cursos.put(c.getChave(), c.getTotal()));
+            topicoRepository.contarPorStatus().forEach(c -> status.put(c.getChave(), c.getTotal()));
+        });
+
+        long corrigidos;
+        synchronized (this) {
+            if (alteracoes.get() != alteracoesAntes || pendentes.get() > 0) {
+                return false;
+            }
+            corrigidos = ajustarTodos(cursos, status);
+        }
+
+        if (reconciliadoEm == null) {
+            log.info("Estatísticas de tópicos carregadas. Tópicos: {}, Cursos: {}", total.sum(), cursos.size());
+        } else if (corrigidos > 0) {
+            log.warn("Estatísticas de tópicos divergentes do banco corrigidas. Contadores: {}", corrigidos);
+            divergencias.increment(corrigidos);
+        }
+        reconciliadoEm = LocalDateTime.now();
+        return true;
+    }
+
+    /**
+     * @return a quantidade de contadores corrigidos
+     */
+    private long ajustarTodos(Map<String, Long> cursos, Map<StatusTopico, Long> status) {
+        long corrigidos = 0;
+        for (String curso : porCurso.keySet()) {
+            cursos.putIfAbsent(curso, 0L);
+        }
+        for (Map.Entry<String, Long> curso : cursos.entrySet()) {
+            corrigidos += ajustar(porCurso.computeIfAbsent(curso.getKey(), chave -> new LongAdder()), curso.getValue());
+        }
+        for (StatusTopico chave : StatusTopico.values()) {
+            corrigidos += ajustar(porStatus.get(chave), status.getOrDefault(chave, 0L));
+        }
+        corrigidos += ajustar(total, status.values().stream().mapToLong(Long::longValue).sum());
+        return corrigidos;
+    }
+
+    private void contar(DetalhesTopicoDto topico, int delta) {
+        porCurso.computeIfAbsent(topico.curso(), chave -> new LongAdder()).add(delta);
+        porStatus.get(topico.status()).add(delta);
+        total.add(delta);
+    }
+
+    /**
+     * @return 1 se o contador foi corrigido, 0 se já estava correto
+     */
+    private static int ajustar(LongAdder contador, long esperado) {
+        long diferenca = esperado - contador.sum();
+        if (diferenca == 0) {
+            return 0;
+        }
+        contador.add(diferenca);
+        return 1;
+    }
+}
@@ -0,0 +1,302 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.dto.topico.EventoFeedTopicoDto;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
+import br.com.alura.forum.exception.FeedIndisponivelException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feed de alterações de tópicos em Server-Sent Events (GET /topicos/stream).
+ *
+ * Cada evento de {@link TopicoAlteradoEvent} é serializado uma única vez, após
+ * o commit, e guardado em um buffer circular com os eventos mais recentes.
+ * Cada assinante tem uma fila própria e limitada, esvaziada por um pool
+ * pequeno de threads de envio; quem publica nunca espera pela rede.
+ *
+ * Um assinante cuja fila enche é desconectado. Ao reconectar com
+ * Last-Event-ID, recebe os eventos perdidos que ainda estão no buffer; se o
+ * ID não estiver mais no buffer (ou for de uma execução anterior da
+ * aplicação), recebe o evento "reinicio" e deve recarregar a listagem.
+ */
+@Service
+@Slf4j
+public class FeedAlteracoesTopicos {
+
+    static final String EVENTO_REINICIO = "reinicio";
+
+    private final ObjectMapper objectMapper;
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+    private final EventoFeed[] historico;
+    private final int capacidadeFila;
+    private final int maximoAssinantes;
+    private final long timeoutMs;
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService envio;
+    private final Counter desconectadosLentos;
+    private long sequencia;
+
+    public FeedAlteracoesTopicos(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${api.topicos.stream.historico:1000}") int tamanhoHistorico,
+            @Value("${api.topicos.stream.buffer-assinante:1024}") int capacidadeFila,
+            @Value("${api.topicos.stream.max-assinantes:1000}") int maximoAssinantes,
+            @Value("${api.topicos.stream.threads-envio:4}") int threadsEnvio,
+            @Value("${api.topicos.stream.timeout-ms:1800000}") long timeoutMs) {
+
+        this.objectMapper = objectMapper;
+        this.historico = new EventoFeed[Math.max(1, tamanhoHistorico)];
+        this.capacidadeFila = Math.max(1, capacidadeFila);
+        this.maximoAssinantes = maximoAssinantes;
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = tarefa -> {
+            Thread thread = new Thread(tarefa, "feed-topicos-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.envio = Executors.newFixedThreadPool(Math.max(1, threadsEnvio), fabrica);
+
+        Gauge.builder("forum.stream.assinantes", this, feed -> feed.assinantes.size())
+                .description("Assinantes conectados a GET /topicos/stream")
+                .register(meterRegistry);
+        this.desconectadosLentos = Counter.builder("forum.stream.desconectados")
+                .description("Assinantes desconectados por não acompanharem o ritmo dos eventos")
+                .tag("motivo", "lento")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra um novo assinante. Se o ID do último evento recebido for
+     * informado, os eventos posteriores a ele são reenviados antes dos novos.
+     *
+     * @param ultimoEventoId o valor do cabeçalho Last-Event-ID (opcional)
+     * @return o emissor SSE do assinante
+     * @throws FeedIndisponivelException se o limite de assinantes foi atingido
+     */
+    public SseEmitter assinar(String ultimoEventoId) {
+        if (assinantes.size() >= maximoAssinantes) {
+            throw new FeedIndisponivelException("Limite de assinantes do feed de tópicos atingido");
+        }
+
+        SseEmitter emissor = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emissor);
+        emissor.onCompletion(() -> assinantes.remove(assinante));
+        emissor.onTimeout(() -> assinantes.remove(assinante));
+        emissor.onError(erro -> assinantes.remove(assinante));
+
+        // O reenvio e o registro ocorrem sob o mesmo bloqueio da publicação,
+        // para que nenhum evento seja perdido ou duplicado entre os dois
+        synchronized (this) {
+            if (ultimoEventoId != null && !ultimoEventoId.isBlank()) {
+                List<EventoFeed> perdidos = eventosApos(ultimoEventoId.trim());
+                if (perdidos == null || perdidos.size() > capacidadeFila) {
+                    assinante.enfileirar(EventoFeed.reinicio());
+                } else {
+                    perdidos.forEach(assinante::enfileirar);
+                }
+            }
+            assinantes.add(assinante);
+        }
+
+        log.debug("Assinante conectado ao feed de tópicos. Último evento: {}, Assinantes: {}",
+                ultimoEventoId, assinantes.size());
+        assinante.agendarEnvio();
+        return emissor;
+    }
+
+    /**
+     * Publica a alteração para os assinantes depois do commit.
+     *
+     * @param evento a alteração do tópico
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarTopico(TopicoAlteradoEvent evento) {
+        String dados;
+        try {
+            dados = objectMapper.writeValueAsString(EventoFeedTopicoDto.of(evento));
+        } catch (JsonProcessingException e) {
+            log.error("Evento do feed de tópicos descartado: falha ao serializar. Tópico: {}", evento.id(), e);
+            return;
+        }
+
+        synchronized (this) {
+            long numero = ++sequencia;
+            EventoFeed eventoFeed = new EventoFeed(numero, instancia + "-" + numero,
+                    evento.tipo().name().toLowerCase(Locale.ROOT), dados);
+            historico[(int) (numero % historico.length)] = eventoFeed;
+
+            for (Assinante assinante : assinantes) {
+                if (!assinante.enfileirar(eventoFeed)) {
+                    desconectar(assinante);
+                }
+            }
+        }
+
+        for (Assinante assinante : assinantes) {
+            assinante.agendarEnvio();
+        }
+    }
+
+    /**
+     * Envia um comentário SSE a cada assinante, para manter a conexão aberta
+     * em proxies e detectar clientes desconectados.
+     */
+    @Scheduled(fixedDelayString = "${api.topicos.stream.heartbeat-ms:15000}")
+    public void manterConexoes() {
+        for (Assinante assinante : assinantes) {
+            if (assinante.enfileirar(EventoFeed.HEARTBEAT)) {
+                assinante.agendarEnvio();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        envio.shutdownNow();
+        for (Assinante assinante : assinantes) {
+            assinante.emissor.complete();
+        }
+        assinantes.clear();
+    }
+
+    /**
+     * Busca no buffer circular os eventos posteriores ao ID informado. Deve
+     * ser chamado com o bloqueio do feed.
+     *
+     * @return os eventos em ordem, ou null se o ID não estiver no buffer
+     */
+    private List<EventoFeed> eventosApos(String ultimoEventoId) {
+        int separador = ultimoEventoId.lastIndexOf('-');
+        if (separador <= 0 || !ultimoEventoId.substring(0, separador).equals(instancia)) {
+            return null;
+        }
+
+        long ultimo;
+        try {
+            ultimo = Long.parseLong(ultimoEventoId.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        long maisAntigo = Math.max(1, sequencia - historico.length + 1);
+        if (ultimo > sequencia || ultimo < maisAntigo - 1) {
+            return null;
+        }
+
+        List<EventoFeed> eventos = new ArrayList<>((int) (sequencia - ultimo));
+        for (long numero = ultimo + 1; numero <= sequencia; numero++) {
+            eventos.add(historico[(int) (numero % historico.length)]);
+        }
+        return eventos;
+    }
+
+    private void desconectar(Assinante assinante) {
+        if (assinantes.remove(assinante)) {
+            desconectadosLentos.increment();
+            log.warn("Assinante lento desconectado do feed de tópicos. Eventos pendentes: {}", capacidadeFila);
+            assinante.fila.clear();
+            assinante.emissor.complete();
+        }
+    }
+
+    /**
+     * Evento já serializado, compartilhado entre os assinantes.
+     */
+    private record EventoFeed(long numero, String id, String nome, String dados) {
+
+        static final EventoFeed HEARTBEAT = new EventoFeed(0, null, null, null);
+
+        static EventoFeed reinicio() {
+            return new EventoFeed(0, null, EVENTO_REINICIO,
+                    "{\"motivo\":\"Eventos anteriores indisponíveis; recarregue a listagem\"}");
+        }
+
+        SseEmitter.SseEventBuilder paraSse() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+
+            SseEmitter.SseEventBuilder evento = SseEmitter.event().name(nome).data(dados, MediaType.APPLICATION_JSON);
+            return id != null ? evento.id(id) : evento;
+        }
+    }
+
+    /**
+     * Assinante com a sua fila de eventos. No máximo uma tarefa de envio por
+     * assinante fica agendada de cada vez, o que preserva a ordem dos eventos.
+     */
+    private final class Assinante {
+
+        private final SseEmitter emissor;
+        private final Queue<EventoFeed> fila = new ArrayBlockingQueue<>(capacidadeFila);
+        private final AtomicBoolean agendado = new AtomicBoolean();
+
+        private Assinante(SseEmitter emissor) {
+            this.emissor = emissor;
+        }
+
+        private boolean enfileirar(EventoFeed evento) {
+            return fila.offer(evento);
+        }
+
+        private void agendarEnvio() {
+            if (!fila.isEmpty() && agendado.compareAndSet(false, true)) {
+                try {
+                    envio.execute(this::enviar);
+                } catch (RuntimeException e) {
+                    agendado.set(false);
+                }
+            }
+        }
+
+        private void enviar() {
+            try {
+                EventoFeed evento;
+                while ((evento = fila.poll()) != null) {
+                    emissor.send(evento.paraSse());
+                }
+
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado ou emissor já concluído
+                assinantes.remove(this);
+                fila.clear();
+                return;
+
+            } finally {
+                agendado.set(false);
+            }
+
+            // Um evento pode ter chegado entre o último poll e a liberação
+            agendarEnvio();
+        }
+    }
+}
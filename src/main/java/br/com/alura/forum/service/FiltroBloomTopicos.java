@@ -0,0 +1,142 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.repository.TopicoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom em memória com os hashes de conteúdo dos tópicos existentes.
+ * Permite responder "certamente não existe" sem consultar o banco, que é o
+ * caso mais comum na criação de tópicos.
+ *
+ * O filtro só admite falsos positivos: quando ele indica que o hash pode
+ * existir, a verificação segue para o banco. O índice único de hash_conteudo
+ * continua sendo a garantia final, inclusive para tópicos criados por outras
+ * instâncias da aplicação.
+ *
+ * Desabilitado por padrão; habilite com api.topicos.filtro-bloom.habilitado=true.
+ * Enquanto a carga inicial não termina, todas as consultas vão ao banco.
+ */
+@Component
+@Slf4j
+public class FiltroBloomTopicos {
+
+    private final TopicoRepository topicoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final long quantidadeBits;
+    private final int quantidadeFuncoes;
+    private final AtomicLongArray bits;
+    private final AtomicLong elementos = new AtomicLong();
+    private volatile boolean pronto;
+
+    public FiltroBloomTopicos(
+            TopicoRepository topicoRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${api.topicos.filtro-bloom.habilitado:false}") boolean habilitado,
+            @Value("${api.topicos.filtro-bloom.insercoes-esperadas:1000000}") long insercoesEsperadas,
+            @Value("${api.topicos.filtro-bloom.taxa-falsos-positivos:0.01}") double taxaFalsosPositivos) {
+
+        this.topicoRepository = topicoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.habilitado = habilitado;
+
+        // m = -n ln(p) / ln(2)^2 e k = (m / n) ln(2)
+        long m = (long) Math.ceil(-insercoesEsperadas * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        this.quantidadeBits = Math.max(64, m);
+        this.quantidadeFuncoes = Math.max(1, (int) Math.round((double) quantidadeBits / insercoesEsperadas * Math.log(2)));
+        this.bits = new AtomicLongArray(habilitado ? (int) ((quantidadeBits + 63) / 64) : 0);
+    }
+
+    /**
+     * Carrega os hashes existentes em segundo plano após a inicialização.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (!habilitado) {
+            return;
+        }
+
+        Thread carga = new Thread(this::carregarHashes, "filtro-bloom-topicos");
+        carga.setDaemon(true);
+        carga.start();
+    }
+
+    /**
+     * Indica se o hash pode existir na base. Retorna true sempre que o filtro
+     * estiver desabilitado ou ainda não carregado.
+     *
+     * @param hashConteudo o hash de conteúdo do tópico
+     * @return false se o hash certamente não existe, true caso contrário
+     */
+    public boolean podeConter(String hashConteudo) {
+        if (!habilitado || !pronto) {
+            return true;
+        }
+
+        long[] base = indicesBase(hashConteudo);
+        for (int i = 0; i < quantidadeFuncoes; i++) {
+            long indice = Math.floorMod(base[0] + i * base[1], quantidadeBits);
+            if ((bits.get((int) (indice >>> 6)) & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registra um hash de conteúdo no filtro.
+     *
+     * @param hashConteudo o hash de conteúdo do tópico
+     */
+    public void adicionar(String hashConteudo) {
+        if (!habilitado) {
+            return;
+        }
+
+        long[] base = indicesBase(hashConteudo);
+        for (int i = 0; i < quantidadeFuncoes; i++) {
+            long indice = Math.floorMod(base[0] + i * base[1], quantidadeBits);
+            long mascara = 1L << indice;
+            bits.getAndAccumulate((int) (indice >>> 6), mascara, (atual, m) -> atual | m);
+        }
+        elementos.incrementAndGet();
+    }
+
+    private void carregarHashes() {
+        long inicio = System.currentTimeMillis();
+        try {
+            transactionTemplate.execute(status -> {
+                try (Stream<String> hashes = topicoRepository.streamHashesConteudo()) {
+                    hashes.forEach(this::adicionar);
+                }
+                return null;
+            });
+            pronto = true;
+            log.info("Filtro de Bloom de tópicos carregado. Elementos: {}, Bits: {}, Funções: {}, Tempo: {} ms",
+                    elementos.get(), quantidadeBits, quantidadeFuncoes, System.currentTimeMillis() - inicio);
+
+        } catch (RuntimeException e) {
+            log.error("Falha ao carregar o filtro de Bloom de tópicos; verificações seguirão para o banco", e);
+        }
+    }
+
+    /**
+     * Extrai dois valores de 64 bits do hash SHA-256 (já uniformemente
+     * distribuído) para a técnica de hashing duplo.
+     */
+    private long[] indicesBase(String hashConteudo) {
+        long h1 = HexFormat.fromHexDigitsToLong(hashConteudo, 0, 16);
+        long h2 = HexFormat.fromHexDigitsToLong(hashConteudo, 16, 32);
+        return new long[] { h1, h2 | 1 };
+    }
+}
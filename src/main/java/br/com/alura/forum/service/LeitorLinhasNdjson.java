@@ -0,0 +1,101 @@
+package br.com.alura.forum.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Leitor de linhas com tamanho máximo, para arquivos NDJSON recebidos de
+ * clientes. Ao contrário de BufferedReader.readLine, uma linha acima do
+ * limite não é mantida em memória: o restante dela é descartado e a linha é
+ * devolvida como excedida.
+ *
+ * Aceita quebras de linha "\n" e "\r\n".
+ */
+class LeitorLinhasNdjson {
+
+    private final Reader leitor;
+    private final int tamanhoMaximo;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder atual = new StringBuilder();
+    private int posicao;
+    private int limite;
+    private long numero;
+
+    LeitorLinhasNdjson(Reader leitor, int tamanhoMaximo) {
+        this.leitor = leitor;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    /**
+     * Lê a próxima linha.
+     *
+     * @return a linha, ou null no fim do arquivo
+     * @throws IOException se a leitura falhar
+     */
+    Linha proxima() throws IOException {
+        atual.setLength(0);
+        boolean excedida = false;
+        boolean leu = false;
+
+        while (true) {
+            if (posicao >= limite) {
+                limite = Math.max(0, leitor.read(buffer));
+                posicao = 0;
+                if (limite == 0) {
+                    if (!leu) {
+                        return null;
+                    }
+                    break;
+                }
+            }
+            leu = true;
+
+            int inicio = posicao;
+            while (posicao < limite && buffer[posicao] != '\n') {
+                posicao++;
+            }
+
+            int tamanho = posicao - inicio;
+            if (!excedida && atual.length() + tamanho > tamanhoMaximo + 1) {
+                excedida = true;
+                atual.setLength(0);
+            }
+            if (!excedida) {
+                atual.append(buffer, inicio, tamanho);
+            }
+
+            if (posicao < limite) {
+                posicao++;
+                break;
+            }
+        }
+
+        numero++;
+        if (excedida) {
+            return new Linha(numero, null);
+        }
+
+        int fim = atual.length();
+        if (fim > 0 && atual.charAt(fim - 1) == '\r') {
+            fim--;
+        }
+        if (fim > tamanhoMaximo) {
+            return new Linha(numero, null);
+        }
+        return new Linha(numero, atual.substring(0, fim));
+    }
+
+    /**
+     * Linha lida do arquivo.
+     *
+     * @param numero   o número da linha (a partir de 1)
+     * @param conteudo o conteúdo sem a quebra de linha, ou null se a linha
+     *                 excedeu o tamanho máximo
+     */
+    record Linha(long numero, String conteudo) {
+
+        boolean excedida() {
+            return conteudo == null;
+        }
+    }
+}
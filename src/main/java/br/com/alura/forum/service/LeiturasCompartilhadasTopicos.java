@@ -0,0 +1,184 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.dto.paginacao.PaginaCursorDto;
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.dto.topico.FiltroTopicosDto;
+import br.com.alura.forum.dto.topico.ResumoTopicoDto;
+import br.com.alura.forum.dto.topico.VersaoTopicoDto;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Leituras de tópicos com coalescência de requisições (single-flight):
+ * requisições simultâneas pela mesma consulta (mesmo ID, ou mesma listagem com
+ * os mesmos filtros e página) compartilham uma única execução no banco.
+ *
+ * A primeira requisição executa a consulta no TopicoService; as que chegam
+ * enquanto ela está em andamento aguardam o mesmo resultado (ou a mesma
+ * exceção) sem abrir transação nem ocupar uma conexão do pool. Nada é
+ * guardado depois que a consulta termina.
+ *
+ * Após o commit de uma alteração, as consultas em andamento afetadas deixam de
+ * ser compartilhadas: quem chega depois da alteração executa uma nova
+ * consulta, em vez de receber um resultado lido antes dela.
+ */
+@Service
+public class LeiturasCompartilhadasTopicos {
+
+    private final TopicoService topicoService;
+    private final ConsultasEmAndamento<Long, DetalhesTopicoDto> detalhes;
+    private final ConsultasEmAndamento<Long, VersaoTopicoDto> versoes;
+    private final ConsultasEmAndamento<ChaveListagem, Page<ResumoTopicoDto>> listagens;
+    private final ConsultasEmAndamento<ChaveListagemCursor, PaginaCursorDto<ResumoTopicoDto>> listagensCursor;
+
+    public LeiturasCompartilhadasTopicos(TopicoService topicoService, MeterRegistry meterRegistry) {
+        this.topicoService = topicoService;
+        this.detalhes = new ConsultasEmAndamento<>("detalhes", meterRegistry);
+        this.versoes = new ConsultasEmAndamento<>("versao", meterRegistry);
+        this.listagens = new ConsultasEmAndamento<>("listagem", meterRegistry);
+        this.listagensCursor = new ConsultasEmAndamento<>("listagem-cursor", meterRegistry);
+    }
+
+    /**
+     * @see TopicoService#obterTopicoById(Long)
+     */
+    public DetalhesTopicoDto obterTopicoById(Long id) {
+        return detalhes.executar(id, () -> topicoService.obterTopicoById(id));
+    }
+
+    /**
+     * @see TopicoService#obterVersaoTopico(Long)
+     */
+    public VersaoTopicoDto obterVersaoTopico(Long id) {
+        return versoes.executar(id, () -> topicoService.obterVersaoTopico(id));
+    }
+
+    /**
+     * @see TopicoService#listarTopicos(FiltroTopicosDto, Pageable)
+     */
+    public Page<ResumoTopicoDto> listarTopicos(FiltroTopicosDto filtro, Pageable pageable) {
+        return listagens.executar(new ChaveListagem(filtro, pageable),
+                () -> topicoService.listarTopicos(filtro, pageable));
+    }
+
+    /**
+     * @see TopicoService#listarTopicosPorCursor(FiltroTopicosDto, String, int)
+     */
+    public PaginaCursorDto<ResumoTopicoDto> listarTopicosPorCursor(FiltroTopicosDto filtro, String cursor, int tamanho) {
+        return listagensCursor.executar(new ChaveListagemCursor(filtro, cursor, tamanho),
+                () -> topicoService.listarTopicosPorCursor(filtro, cursor, tamanho));
+    }
+
+    /**
+     * Deixa de compartilhar as consultas em andamento que a alteração pode
+     * ter tornado desatualizadas.
+     *
+     * Executado antes da invalidação do cache de respostas
+     * ({@link CacheDetalhesTopicos}): uma requisição que chega depois da
+     * invalidação não pode aderir a uma leitura iniciada antes do commit, cujo
+     * resultado ficaria no cache até o TTL.
+     *
+     * @param evento o evento de alteração
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarTopico(TopicoAlteradoEvent evento) {
+        detalhes.descartar(evento.id());
+        versoes.descartar(evento.id());
+        listagens.descartarTodas();
+        listagensCursor.descartarTodas();
+    }
+
+    private record ChaveListagem(FiltroTopicosDto filtro, Pageable pageable) {
+    }
+
+    private record ChaveListagemCursor(FiltroTopicosDto filtro, String cursor, int tamanho) {
+    }
+
+    /**
+     * Consultas em andamento de um tipo, indexadas pela chave da consulta.
+     */
+    private static final class ConsultasEmAndamento<K, V> {
+
+        private final Map<K, CompletableFuture<V>> emAndamento = new ConcurrentHashMap<>();
+        private final Counter executadas;
+        private final Counter compartilhadas;
+
+        private ConsultasEmAndamento(String consulta, MeterRegistry meterRegistry) {
+            this.executadas = contador(meterRegistry, consulta, "banco");
+            this.compartilhadas = contador(meterRegistry, consulta, "compartilhada");
+        }
+
+        private V executar(K chave, Supplier<V> consulta) {
+            CompletableFuture<V> nova = new CompletableFuture<>();
+            CompletableFuture<V> existente = emAndamento.putIfAbsent(chave, nova);
+            if (existente != null) {
+                compartilhadas.increment();
+                return aguardar(existente);
+            }
+
+            executadas.increment();
+            try {
+                V resultado = consulta.get();
+                nova.complete(resultado);
+                return resultado;
+
+            } catch (RuntimeException | Error e) {
+                nova.completeExceptionally(e);
+                throw e;
+
+            } finally {
+                emAndamento.remove(chave, nova);
+            }
+        }
+
+        private void descartar(K chave) {
+            emAndamento.remove(chave);
+        }
+
+        private void descartarTodas() {
+            emAndamento.clear();
+        }
+
+        /**
+         * Aguarda o resultado da consulta de outra requisição, repassando a
+         * exceção original (por exemplo, TopicoNaoEncontradoException).
+         */
+        private static <V> V aguardar(CompletableFuture<V> consulta) {
+            try {
+                return consulta.join();
+
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException causa) {
+                    throw causa;
+                }
+                if (e.getCause() instanceof Error erro) {
+                    throw erro;
+                }
+                throw e;
+            }
+        }
+
+        private static Counter contador(MeterRegistry meterRegistry, String consulta, String origem) {
+            return Counter.builder("forum.topicos.leituras")
+                    .description("Leituras de tópicos por consulta: executadas no banco ou compartilhadas com uma requisição em andamento")
+                    .tag("consulta", consulta)
+                    .tag("origem", origem)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.alura.forum.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Estratégia de busca textual sobre título e mensagem dos tópicos.
+ * A implementação é escolhida pela propriedade api.topicos.busca.modo:
+ * "mysql" (índice FULLTEXT, padrão) ou "memoria" (índice invertido em
+ * processo, para H2 e testes).
+ */
+public interface MotorBuscaTopicos {
+
+    /**
+     * Busca os tópicos relevantes para a consulta, em ordem decrescente de
+     * relevância.
+     *
+     * @param consulta o texto da busca
+     * @param pageable informações de paginação (a ordenação é ignorada)
+     * @return página com os IDs dos tópicos e suas relevâncias
+     */
+    Page<ResultadoBusca> buscar(String consulta, Pageable pageable);
+
+    /**
+     * ID de um tópico encontrado e sua relevância para a consulta.
+     */
+    record ResultadoBusca(Long id, double relevancia) {
+    }
+}
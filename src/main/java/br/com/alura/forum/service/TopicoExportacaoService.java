@@ -0,0 +1,164 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.domain.topico.Topico;
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.dto.topico.FiltroTopicosDto;
+import br.com.alura.forum.dto.topico.FormatoExportacao;
+import br.com.alura.forum.repository.TopicoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Serviço de exportação de tópicos em NDJSON ou CSV.
+ *
+ * Os tópicos são lidos do banco em stream (com fetch size) e escritos na
+ * resposta um a um; cada entidade é desanexada do contexto de persistência
+ * logo após ser escrita. A memória usada não depende da quantidade de
+ * tópicos exportados.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TopicoExportacaoService {
+
+    /** Tópicos escritos entre dois envios (flush) à conexão. */
+    private static final int INTERVALO_FLUSH = 500;
+
+    private static final String CABECALHO_CSV =
+            "id,titulo,mensagem,dataCriacao,status,autor,curso,dataAtualizacao,versao";
+
+    private final TopicoRepository topicoRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Escreve os tópicos que atendem aos filtros na saída informada.
+     *
+     * @param filtro  os filtros opcionais
+     * @param formato o formato da exportação
+     * @param saida   a saída da resposta; não é fechada
+     * @return a quantidade de tópicos exportados
+     * @throws IOException se a escrita falhar (por exemplo, cliente desconectado)
+     */
+    @Transactional(readOnly = true)
+    public long exportar(FiltroTopicosDto filtro, FormatoExportacao formato, OutputStream saida) throws IOException {
+        log.info("Exportando tópicos. Filtro: {}, Formato: {}", filtro, formato);
+        long inicio = System.nanoTime();
+
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        long quantidade;
+
+        try (Stream<Topico> topicos = topicoRepository.streamTopicos(filtro)) {
+            quantidade = formato == FormatoExportacao.CSV
+                    ? escreverCsv(topicos.iterator(), escritor)
+                    : escreverNdjson(topicos.iterator(), escritor);
+        }
+        escritor.flush();
+
+        log.info("Exportação de tópicos concluída. Tópicos: {}, Tempo: {} ms",
+                quantidade, (System.nanoTime() - inicio) / 1_000_000);
+        return quantidade;
+    }
+
+    private long escreverNdjson(Iterator<Topico> topicos, Writer escritor) throws IOException {
+        long quantidade = 0;
+
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(escritor)) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Sem o espaço padrão entre valores raiz: cada linha começa no objeto
+            gerador.setRootValueSeparator(null);
+
+            while (topicos.hasNext()) {
+                objectMapper.writeValue(gerador, paraDto(topicos.next()));
+                gerador.writeRaw('\n');
+
+                if (++quantidade % INTERVALO_FLUSH == 0) {
+                    gerador.flush();
+                }
+            }
+        }
+        return quantidade;
+    }
+
+    private long escreverCsv(Iterator<Topico> topicos, Writer escritor) throws IOException {
+        long quantidade = 0;
+        escritor.write(CABECALHO_CSV);
+        escritor.write("\r\n");
+
+        while (topicos.hasNext()) {
+            DetalhesTopicoDto topico = paraDto(topicos.next());
+
+            escritor.write(String.valueOf(topico.id()));
+            escritor.write(',');
+            escreverCampoCsv(escritor, topico.titulo());
+            escritor.write(',');
+            escreverCampoCsv(escritor, topico.mensagem());
+            escritor.write(',');
+            escreverCampoCsv(escritor, topico.dataCriacao());
+            escritor.write(',');
+            escreverCampoCsv(escritor, topico.status());
+            escritor.write(',');
+            escreverCampoCsv(escritor, topico.autor());
+            escritor.write(',');
+            escreverCampoCsv(escritor, topico.curso());
+            escritor.write(',');
+            escreverCampoCsv(escritor, topico.dataAtualizacao());
+            escritor.write(',');
+            escreverCampoCsv(escritor, topico.versao());
+            escritor.write("\r\n");
+
+            if (++quantidade % INTERVALO_FLUSH == 0) {
+                escritor.flush();
+            }
+        }
+        return quantidade;
+    }
+
+    /**
+     * Converte o tópico e o desanexa do contexto de persistência, para que
+     * as entidades já escritas possam ser coletadas.
+     */
+    private DetalhesTopicoDto paraDto(Topico topico) {
+        DetalhesTopicoDto dto = DetalhesTopicoDto.fromTopico(topico);
+        entityManager.detach(topico);
+        return dto;
+    }
+
+    /**
+     * Escreve um campo CSV, entre aspas quando contém vírgula, aspas ou
+     * quebra de linha (aspas internas são duplicadas).
+     */
+    private static void escreverCampoCsv(Writer escritor, Object valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0
+                && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            escritor.write(texto);
+            return;
+        }
+
+        escritor.write('"');
+        escritor.write(texto.replace("\"", "\"\""));
+        escritor.write('"');
+    }
+}
@@ -0,0 +1,398 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.domain.topico.ImportacaoTopicos;
+import br.com.alura.forum.domain.topico.SituacaoImportacao;
+import br.com.alura.forum.dto.exception.CampoErroDto;
+import br.com.alura.forum.dto.topico.CadastroTopicoDto;
+import br.com.alura.forum.dto.topico.ErroImportacaoDto;
+import br.com.alura.forum.dto.topico.ImportacaoTopicosDto;
+import br.com.alura.forum.dto.topico.ItemLoteDto;
+import br.com.alura.forum.dto.topico.SituacaoItemLote;
+import br.com.alura.forum.exception.ImportacaoEmAndamentoException;
+import br.com.alura.forum.exception.ImportacaoInvalidaException;
+import br.com.alura.forum.exception.ImportacaoNaoEncontradaException;
+import br.com.alura.forum.repository.ImportacaoTopicosRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Serviço de importação de tópicos a partir de um arquivo NDJSON (um tópico
+ * JSON por linha), para cargas grandes vindas de outros fóruns.
+ *
+ * O arquivo é lido em stream, linha a linha: apenas o chunk corrente fica em
+ * memória e a leitura do corpo da requisição só avança quando o chunk
+ * anterior foi gravado, o que repassa ao cliente o ritmo do banco. Cada chunk
+ * é validado e inserido por {@link TopicoLoteService#processarChunk} em uma
+ * transação que também avança o ponto de controle da importação.
+ *
+ * Linhas rejeitadas (JSON inválido, validação ou duplicidade) são acrescentadas
+ * ao arquivo de erros da importação após o commit do chunk. Se a importação
+ * for interrompida, basta reenviar o mesmo arquivo com o mesmo ID: as linhas
+ * já confirmadas são ignoradas. Se a interrupção ocorrer entre o commit de um
+ * chunk e a gravação dos seus erros, esses erros não são registrados.
+ *
+ * Cada execução reserva a importação no banco antes de ler o arquivo (UPDATE
+ * condicional sobre a situação), de modo que o mesmo ID não execute duas
+ * vezes, nem em instâncias diferentes. A reserva é renovada a cada chunk
+ * confirmado; se ficar sem renovação por mais que o prazo configurado (cliente
+ * parado ou instância encerrada sem marcar a interrupção), outra execução pode
+ * assumi-la, e os chunks seguintes da execução antiga são recusados.
+ */
+@Service
+@Slf4j
+public class TopicoImportacaoService {
+
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final TopicoLoteService topicoLoteService;
+    private final ImportacaoTopicosRepository importacaoRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transacao;
+    private final int tamanhoChunk;
+    private final int tamanhoMaximoLinha;
+    private final Path diretorio;
+    private final Duration validadeReserva;
+
+    public TopicoImportacaoService(
+            TopicoLoteService topicoLoteService,
+            ImportacaoTopicosRepository importacaoRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${api.topicos.importacao.tamanho-chunk:500}") int tamanhoChunk,
+            @Value("${api.topicos.importacao.tamanho-maximo-linha:65536}") int tamanhoMaximoLinha,
+            @Value("${api.topicos.importacao.diretorio:importacoes}") String diretorio,
+            @Value("${api.topicos.importacao.reserva-segundos:300}") long reservaSegundos) {
+
+        this.topicoLoteService = topicoLoteService;
+        this.importacaoRepository = importacaoRepository;
+        this.objectMapper = objectMapper;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tamanhoChunk = Math.max(1, tamanhoChunk);
+        this.tamanhoMaximoLinha = Math.max(1, tamanhoMaximoLinha);
+        this.diretorio = Paths.get(diretorio).toAbsolutePath();
+        this.validadeReserva = Duration.ofSeconds(reservaSegundos);
+    }
+
+    /**
+     * Importa os tópicos do arquivo NDJSON, retomando a importação a partir
+     * do último chunk confirmado se o ID já existir.
+     *
+     * @param id      o ID da importação, escolhido pelo cliente
+     * @param entrada o conteúdo NDJSON, em UTF-8
+     * @return o progresso final da importação
+     * @throws ImportacaoInvalidaException    se o ID for inválido
+     * @throws ImportacaoEmAndamentoException se a importação estiver em
+     *                                        andamento em qualquer instância,
+     *                                        ou for assumida por outra
+     *                                        execução durante esta
+     * @throws UncheckedIOException           se a leitura do arquivo falhar
+     */
+    public ImportacaoTopicosDto importar(String id, InputStream entrada) {
+        validarId(id);
+        String execucao = UUID.randomUUID().toString();
+
+        ImportacaoTopicos importacao;
+        try {
+            importacao = transacao.execute(status -> reservar(id, execucao));
+
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição criou a mesma importação ao mesmo tempo
+            if (importacaoRepository.existsById(id)) {
+                throw emAndamento(id);
+            }
+            throw e;
+        }
+        return executar(importacao, execucao, entrada);
+    }
+
+    /**
+     * Obtém o progresso de uma importação.
+     *
+     * @param id o ID da importação
+     * @return o progresso da importação
+     * @throws ImportacaoNaoEncontradaException se a importação não existir
+     */
+    public ImportacaoTopicosDto obter(String id) {
+        validarId(id);
+        return importacaoRepository.findById(id)
+                .map(ImportacaoTopicosDto::fromImportacao)
+                .orElseThrow(() -> new ImportacaoNaoEncontradaException(
+                        "Importação com ID " + id + " não encontrada"));
+    }
+
+    /**
+     * Localiza o arquivo de erros de uma importação.
+     *
+     * @param id o ID da importação
+     * @return o caminho do arquivo NDJSON de erros
+     * @throws ImportacaoNaoEncontradaException se a importação ou o arquivo
+     *                                          não existirem
+     */
+    public Path arquivoErros(String id) {
+        obter(id);
+        Path arquivo = caminhoErros(id);
+        if (!Files.isRegularFile(arquivo)) {
+            throw new ImportacaoNaoEncontradaException(
+                    "Arquivo de erros da importação " + id + " não encontrado");
+        }
+        return arquivo;
+    }
+
+    /**
+     * Reserva a importação para a execução, criando-a se não existir. O
+     * progresso é lido depois da reserva, já com os chunks confirmados por
+     * uma execução anterior.
+     */
+    private ImportacaoTopicos reservar(String id, String execucao) {
+        LocalDateTime agora = LocalDateTime.now();
+        int reservadas = importacaoRepository.reservar(
+                id, execucao, SituacaoImportacao.EM_ANDAMENTO, agora, agora.minus(validadeReserva));
+
+        if (reservadas == 0) {
+            if (importacaoRepository.existsById(id)) {
+                throw emAndamento(id);
+            }
+            importacaoRepository.criar(id, execucao, usuarioAutenticado(), agora);
+        }
+        return importacaoRepository.findById(id).orElseThrow();
+    }
+
+    /**
+     * Lê e grava o arquivo. O progresso final é montado a partir dos totais
+     * desta execução: o ponto de controle é atualizado por UPDATE, e a
+     * entidade carregada no início pode continuar no contexto de persistência
+     * da requisição com os valores antigos.
+     */
+    private ImportacaoTopicosDto executar(ImportacaoTopicos importacao, String execucao, InputStream entrada) {
+        String id = importacao.getId();
+        long retomarApos = importacao.getLinhasProcessadas();
+        long ultimaLinha = retomarApos;
+        long criados = 0;
+        long rejeitados = 0;
+        LocalDateTime agora;
+
+        log.info("Importação de tópicos iniciada. ID: {}, Retomando após a linha: {}, Tamanho do chunk: {}",
+                id, retomarApos, tamanhoChunk);
+        long inicio = System.nanoTime();
+
+        try (Writer erros = abrirArquivoErros(id)) {
+            LeitorLinhasNdjson leitor = new LeitorLinhasNdjson(
+                    new InputStreamReader(entrada, StandardCharsets.UTF_8), tamanhoMaximoLinha);
+            ChunkImportacao chunk = new ChunkImportacao(tamanhoChunk);
+
+            LeitorLinhasNdjson.Linha linha;
+            while ((linha = leitor.proxima()) != null) {
+                if (linha.numero() <= retomarApos) {
+                    continue;
+                }
+                ultimaLinha = linha.numero();
+
+                adicionar(chunk, linha);
+                if (chunk.cheio()) {
+                    ResultadoChunk resultado = confirmar(id, execucao, chunk, erros);
+                    criados += resultado.criados();
+                    rejeitados += resultado.rejeitados();
+                    chunk = new ChunkImportacao(tamanhoChunk);
+                }
+            }
+
+            if (!chunk.vazio()) {
+                ResultadoChunk resultado = confirmar(id, execucao, chunk, erros);
+                criados += resultado.criados();
+                rejeitados += resultado.rejeitados();
+            }
+
+            agora = LocalDateTime.now();
+            LocalDateTime conclusao = agora;
+            transacao.executeWithoutResult(status -> {
+                if (importacaoRepository.alterarSituacao(id, execucao, SituacaoImportacao.CONCLUIDA, conclusao) == 0) {
+                    throw assumida(id);
+                }
+            });
+
+        } catch (IOException | RuntimeException e) {
+            log.error("Importação de tópicos interrompida. ID: {}, Criados nesta execução: {}, Rejeitados: {}",
+                    id, criados, rejeitados, e);
+            interromper(id, execucao);
+            if (e instanceof IOException falhaLeitura) {
+                throw new UncheckedIOException("Falha ao ler a importação " + id, falhaLeitura);
+            }
+            throw (RuntimeException) e;
+        }
+
+        long milissegundos = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        log.info("Importação de tópicos concluída. ID: {}, Criados: {}, Rejeitados: {}, Tempo: {} ms, Vazão: {} linhas/s",
+                id, criados, rejeitados, milissegundos, (criados + rejeitados) * 1000L / milissegundos);
+
+        return new ImportacaoTopicosDto(id, SituacaoImportacao.CONCLUIDA, ultimaLinha,
+                importacao.getCriados() + criados, importacao.getRejeitados() + rejeitados,
+                importacao.getIniciadaEm(), agora);
+    }
+
+    /**
+     * Acrescenta a linha ao chunk. Linhas em branco apenas avançam o ponto de
+     * controle; linhas ilegíveis são rejeitadas sem chegar à validação.
+     */
+    private void adicionar(ChunkImportacao chunk, LeitorLinhasNdjson.Linha linha) {
+        chunk.ultimaLinha = linha.numero();
+
+        if (linha.excedida()) {
+            chunk.rejeitadas.add(new ErroImportacaoDto(linha.numero(), SituacaoItemLote.INVALIDO,
+                    List.of(new CampoErroDto("linha", "A linha excede " + tamanhoMaximoLinha + " caracteres")),
+                    null));
+            return;
+        }
+        if (linha.conteudo().isBlank()) {
+            return;
+        }
+
+        try {
+            chunk.topicos.add(objectMapper.readValue(linha.conteudo(), CadastroTopicoDto.class));
+            chunk.linhas.add(linha);
+
+        } catch (JsonProcessingException e) {
+            chunk.rejeitadas.add(new ErroImportacaoDto(linha.numero(), SituacaoItemLote.INVALIDO,
+                    List.of(new CampoErroDto("linha", "JSON inválido: " + e.getOriginalMessage())),
+                    linha.conteudo()));
+        }
+    }
+
+    /**
+     * Grava o chunk e avança o ponto de controle na mesma transação; depois do
+     * commit, acrescenta as linhas rejeitadas ao arquivo de erros. Se outra
+     * execução tiver assumido a importação, o chunk é desfeito.
+     */
+    private ResultadoChunk confirmar(String id, String execucao, ChunkImportacao chunk, Writer arquivoErros)
+            throws IOException {
+        ResultadoChunk resultado = transacao.execute(status -> {
+            List<ItemLoteDto> itens = topicoLoteService.processarChunk(chunk.topicos, 0);
+
+            List<ErroImportacaoDto> rejeitadas = new ArrayList<>(chunk.rejeitadas);
+            for (ItemLoteDto item : itens) {
+                if (item.situacao() != SituacaoItemLote.CRIADO) {
+                    LeitorLinhasNdjson.Linha linha = chunk.linhas.get(item.indice());
+                    rejeitadas.add(new ErroImportacaoDto(linha.numero(), item.situacao(), item.erros(), linha.conteudo()));
+                }
+            }
+
+            long criados = itens.size() - (rejeitadas.size() - chunk.rejeitadas.size());
+            if (importacaoRepository.registrarChunk(
+                    id, execucao, chunk.ultimaLinha, criados, rejeitadas.size(), LocalDateTime.now()) == 0) {
+                throw assumida(id);
+            }
+            return new ResultadoChunk(criados, rejeitadas);
+        });
+
+        resultado.erros().sort(Comparator.comparingLong(ErroImportacaoDto::linha));
+        for (ErroImportacaoDto erro : resultado.erros()) {
+            arquivoErros.write(objectMapper.writeValueAsString(erro));
+            arquivoErros.write('\n');
+        }
+        arquivoErros.flush();
+
+        log.debug("Chunk da importação confirmado. ID: {}, Até a linha: {}, Criados: {}, Rejeitados: {}",
+                id, chunk.ultimaLinha, resultado.criados(), resultado.rejeitados());
+        return resultado;
+    }
+
+    private void interromper(String id, String execucao) {
+        try {
+            transacao.executeWithoutResult(status -> importacaoRepository.alterarSituacao(
+                    id, execucao, SituacaoImportacao.INTERROMPIDA, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao marcar a importação como interrompida. ID: {}", id, e);
+        }
+    }
+
+    private static ImportacaoEmAndamentoException emAndamento(String id) {
+        return new ImportacaoEmAndamentoException("A importação " + id + " já está em andamento");
+    }
+
+    private static ImportacaoEmAndamentoException assumida(String id) {
+        return new ImportacaoEmAndamentoException(
+                "A importação " + id + " foi assumida por outra execução após expirar a reserva");
+    }
+
+    private Writer abrirArquivoErros(String id) throws IOException {
+        Files.createDirectories(diretorio);
+        return Files.newBufferedWriter(caminhoErros(id), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private Path caminhoErros(String id) {
+        return diretorio.resolve(id + ".erros.ndjson");
+    }
+
+    private static void validarId(String id) {
+        if (id == null || !ID_VALIDO.matcher(id).matches()) {
+            throw new ImportacaoInvalidaException(
+                    "O ID da importação deve ter de 1 a 64 letras, dígitos, '-' ou '_'");
+        }
+    }
+
+    private static String usuarioAutenticado() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null && autenticacao.isAuthenticated() ? autenticacao.getName() : null;
+    }
+
+    /**
+     * Linhas lidas e ainda não confirmadas. O tamanho conta as linhas
+     * rejeitadas na leitura, para limitar a memória mesmo em arquivos
+     * inteiramente inválidos.
+     */
+    private static final class ChunkImportacao {
+
+        private final int capacidade;
+        private final List<CadastroTopicoDto> topicos;
+        private final List<LeitorLinhasNdjson.Linha> linhas;
+        private final List<ErroImportacaoDto> rejeitadas = new ArrayList<>();
+        private long ultimaLinha;
+
+        private ChunkImportacao(int capacidade) {
+            this.capacidade = capacidade;
+            this.topicos = new ArrayList<>(capacidade);
+            this.linhas = new ArrayList<>(capacidade);
+        }
+
+        private boolean cheio() {
+            return topicos.size() + rejeitadas.size() >= capacidade;
+        }
+
+        private boolean vazio() {
+            return ultimaLinha == 0;
+        }
+    }
+
+    private record ResultadoChunk(long criados, List<ErroImportacaoDto> erros) {
+
+        long rejeitados() {
+            return erros.size();
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package br.com.alura.forum.service;
+
+import br.com.alura.forum.domain.topico.HashConteudoTopico;
+import br.com.alura.forum.domain.topico.StatusTopico;
+import br.com.alura.forum.domain.topico.Topico;
+import br.com.alura.forum.dto.exception.CampoErroDto;
+import br.com.alura.forum.dto.topico.CadastroTopicoDto;
+import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.dto.topico.ItemLoteDto;
+import br.com.alura.forum.dto.topico.ResultadoLoteDto;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
+import br.com.alura.forum.exception.LoteInvalidoException;
+import br.com.alura.forum.repository.TopicoLoteRepository;
+import br.com.alura.forum.repository.TopicoRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço de criação de tópicos em lote.
+ *
+ * Os itens são processados em chunks de tamanho configurável, cada um na sua
+ * própria transação: um chunk com erro não desfaz os anteriores. Dentro de um
+ * chunk, a validação e a verificação de duplicidade são feitas com uma
+ * consulta por chunk (e não por item) e a inserção é um único lote JDBC.
+ *
+ * Cada item recebe uma situação própria no resultado (criado, inválido ou
+ * duplicado); itens rejeitados não impedem a criação dos demais.
+ */
+@Service
+@Slf4j
+public class TopicoLoteService {
+
+    private final TopicoRepository topicoRepository;
+    private final TopicoLoteRepository topicoLoteRepository;
+    private final FiltroBloomTopicos filtroBloomTopicos;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transacaoChunk;
+    private final int tamanhoChunk;
+    private final int maximoItens;
+
+    public TopicoLoteService(
+            TopicoRepository topicoRepository,
+            TopicoLoteRepository topicoLoteRepository,
+            FiltroBloomTopicos filtroBloomTopicos,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${api.topicos.lote.tamanho-chunk:500}") int tamanhoChunk,
+            @Value("${api.topicos.lote.max-itens:10000}") int maximoItens) {
+
+        this.topicoRepository = topicoRepository;
+        this.topicoLoteRepository = topicoLoteRepository;
+        this.filtroBloomTopicos = filtroBloomTopicos;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.tamanhoChunk = Math.max(1, tamanhoChunk);
+        this.maximoItens = maximoItens;
+
+        this.transacaoChunk = new TransactionTemplate(transactionManager);
+        this.transacaoChunk.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Cria os tópicos do lote, um chunk por transação.
+     *
+     * @param itens os tópicos a criar
+     * @return o resultado de cada item, na ordem recebida
+     * @throws LoteInvalidoException se o lote estiver vazio ou exceder o
+     *                               tamanho máximo
+     */
+    public ResultadoLoteDto criarEmLote(List<CadastroTopicoDto> itens) {
+        if (itens == null || itens.isEmpty()) {
+            throw new LoteInvalidoException("O lote deve conter ao menos um tópico");
+        }
+        if (itens.size() > maximoItens) {
+            throw new LoteInvalidoException(
+                    "O lote deve conter no máximo " + maximoItens + " tópicos");
+        }
+
+        log.info("Criando lote de tópicos. Itens: {}, Tamanho do chunk: {}", itens.size(), tamanhoChunk);
+        long inicio = System.nanoTime();
+
+        List<ItemLoteDto> resultados = new ArrayList<>(itens.size());
+        for (int inicioChunk = 0; inicioChunk < itens.size(); inicioChunk += tamanhoChunk) {
+            List<CadastroTopicoDto> chunk = itens.subList(inicioChunk, Math.min(inicioChunk + tamanhoChunk, itens.size()));
+            int indiceInicial = inicioChunk;
+            resultados.addAll(transacaoChunk.execute(status -> processarChunk(chunk, indiceInicial)));
+        }
+
+        ResultadoLoteDto resultado = ResultadoLoteDto.of(resultados);
+        long milissegundos = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        log.info("Lote de tópicos processado. Itens: {}, Criados: {}, Rejeitados: {}, Tempo: {} ms, Vazão: {} itens/s",
+                resultado.total(), resultado.criados(), resultado.rejeitados(), milissegundos,
+                resultado.total() * 1000L / milissegundos);
+
+        return resultado;
+    }
+
+    /**
+     * Valida, verifica duplicidade e insere um chunk de tópicos na transação
+     * corrente. Usado também por processos que precisam gravar outros dados
+     * na mesma transação do chunk.
+     *
+     * Se o lote JDBC violar um índice único (por exemplo, um tópico igual
+     * criado concorrentemente), o lote é desfeito até o seu savepoint e a
+     * inserção é refeita item a item, para isolar os itens em conflito.
+     *
+     * @param itens         os tópicos do chunk
+     * @param indiceInicial a posição do primeiro item do chunk no lote
+     * @return o resultado de cada item do chunk, na ordem recebida
+     */
+    public List<ItemLoteDto> processarChunk(List<CadastroTopicoDto> itens, int indiceInicial) {
+        List<ItemLoteDto> resultados = new ArrayList<>(itens.size());
+        List<ItemPendente> pendentes = new ArrayList<>(itens.size());
+
+        for (int i = 0; i < itens.size(); i++) {
+            CadastroTopicoDto dto = itens.get(i);
+            int indice = indiceInicial + i;
+
+            List<CampoErroDto> erros = validar(dto);
+            if (!erros.isEmpty()) {
+                resultados.add(ItemLoteDto.invalido(indice, erros));
+            } else {
+                pendentes.add(new ItemPendente(indice, dto, HashConteudoTopico.calcular(dto.titulo(), dto.mensagem())));
+            }
+        }
+
+        List<ItemPendente> novos = removerDuplicados(pendentes, resultados);
+        if (!novos.isEmpty()) {
+            resultados.addAll(inserir(novos));
+        }
+
+        resultados.sort(Comparator.comparingInt(ItemLoteDto::indice));
+        return resultados;
+    }
+
+    /**
+     * Separa os itens que duplicam um tópico existente ou outro item do mesmo
+     * chunk. Os títulos são comparados sem diferenciar maiúsculas, como a
+     * collation do índice único de título no MySQL.
+     */
+    private List<ItemPendente> removerDuplicados(List<ItemPendente> pendentes, List<ItemLoteDto> resultados) {
+        if (pendentes.isEmpty()) {
+            return pendentes;
+        }
+
+        Set<String> hashesExistentes = new HashSet<>(topicoRepository.findHashesConteudoExistentes(
+                pendentes.stream().map(ItemPendente::hashConteudo).collect(Collectors.toSet())));
+        Set<String> titulosExistentes = topicoRepository.findTitulosExistentes(
+                        pendentes.stream().map(p -> p.dto().titulo()).collect(Collectors.toSet()))
+                .stream()
+                .map(TopicoLoteService::normalizarTitulo)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<ItemPendente> novos = new ArrayList<>(pendentes.size());
+        for (ItemPendente pendente : pendentes) {
+            String titulo = normalizarTitulo(pendente.dto().titulo());
+
+            if (hashesExistentes.contains(pendente.hashConteudo())) {
+                resultados.add(ItemLoteDto.duplicado(pendente.indice(),
+                        "Já existe um tópico com o mesmo título e mensagem"));
+            } else if (titulosExistentes.contains(titulo)) {
+                resultados.add(ItemLoteDto.duplicado(pendente.indice(),
+                        "Já existe um tópico com o mesmo título"));
+            } else {
+                hashesExistentes.add(pendente.hashConteudo());
+                titulosExistentes.add(titulo);
+                novos.add(pendente);
+            }
+        }
+        return novos;
+    }
+
+    /**
+     * Insere os itens em um único lote JDBC; em caso de violação de
+     * unicidade, refaz a inserção item a item.
+     */
+    private List<ItemLoteDto> inserir(List<ItemPendente> novos) {
+        List<Topico> topicos = novos.stream().map(ItemPendente::novoTopico).toList();
+
+        try {
+            topicoLoteRepository.inserir(topicos);
+
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Violação de unicidade no lote de tópicos; inserindo item a item. Itens: {}", novos.size());
+            return inserirItemAItem(novos);
+        }
+
+        List<ItemLoteDto> resultados = new ArrayList<>(novos.size());
+        for (int i = 0; i < novos.size(); i++) {
+            resultados.add(concluir(novos.get(i), topicos.get(i)));
+        }
+        return resultados;
+    }
+
+    private List<ItemLoteDto> inserirItemAItem(List<ItemPendente> novos) {
+        List<ItemLoteDto> resultados = new ArrayList<>(novos.size());
+
+        for (ItemPendente pendente : novos) {
+            Topico topico = pendente.novoTopico();
+            try {
+                topicoLoteRepository.inserir(List.of(topico));
+                resultados.add(concluir(pendente, topico));
+
+            } catch (DataIntegrityViolationException e) {
+                resultados.add(ItemLoteDto.duplicado(pendente.indice(),
+                        "Já existe um tópico com o mesmo título ou conteúdo"));
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Registra o tópico inserido no filtro de Bloom e publica o evento de
+     * criação, entregue aos ouvintes após o commit do chunk.
+     */
+    private ItemLoteDto concluir(ItemPendente pendente, Topico topico) {
+        filtroBloomTopicos.adicionar(pendente.hashConteudo());
+        eventPublisher.publishEvent(TopicoAlteradoEvent.criado(DetalhesTopicoDto.fromTopico(topico)));
+        return ItemLoteDto.criado(pendente.indice(), topico.getId());
+    }
+
+    private List<CampoErroDto> validar(CadastroTopicoDto dto) {
+        if (dto == null) {
+            return List.of(new CampoErroDto("topico", "Tópico é obrigatório"));
+        }
+
+        Set<ConstraintViolation<CadastroTopicoDto>> violacoes = validator.validate(dto);
+        return violacoes.stream()
+                .map(v -> new CampoErroDto(v.getPropertyPath().toString(), v.getMessage()))
+                .sorted(Comparator.comparing(CampoErroDto::campo))
+                .toList();
+    }
+
+    private static String normalizarTitulo(String titulo) {
+        return titulo.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Item válido aguardando a verificação de duplicidade e a inserção.
+     */
+    private record ItemPendente(int indice, CadastroTopicoDto dto, String hashConteudo) {
+
+        Topico novoTopico() {
+            Topico topico = new Topico(dto.titulo(), dto.mensagem(), dto.autor(), dto.curso());
+            topico.setStatus(StatusTopico.NAO_RESPONDIDO);
+            topico.setDataCriacao(LocalDateTime.now());
+            topico.setDataAtualizacao(topico.getDataCriacao());
+            topico.setVersao(0L);
+            return topico;
+        }
+    }
+}
@@ -1,19 +1,46 @@
 package br.com.alura.forum.service;
 
+import br.com.alura.forum.domain.topico.CursorTopico;
+import br.com.alura.forum.domain.topico.HashConteudoTopico;
+import br.com.alura.forum.domain.topico.StatusTopico;
 import br.com.alura.forum.domain.topico.Topico;
+import br.com.alura.forum.dto.paginacao.PaginaCursorDto;
 import br.com.alura.forum.dto.topico.AtualizacaoTopicoDto;
 import br.com.alura.forum.dto.topico.CadastroTopicoDto;
 import br.com.alura.forum.dto.topico.DetalhesTopicoDto;
+import br.com.alura.forum.dto.topico.FiltroTopicosDto;
+import br.com.alura.forum.dto.topico.ResultadoBuscaTopicoDto;
+import br.com.alura.forum.dto.topico.ResumoTopicoDto;
+import br.com.alura.forum.dto.topico.VersaoTopicoDto;
+import br.com.alura.forum.event.TopicoAlteradoEvent;
 import br.com.alura.forum.exception.TopicoJaExisteException;
 import br.com.alura.forum.exception.TopicoNaoEncontradoException;
+import br.com.alura.forum.exception.VersaoTopicoDesatualizadaException;
+import br.com.alura.forum.repository.TopicoArquivoRepository;
 import br.com.alura.forum.repository.TopicoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
 /**
  * Serviço que encapsula a lógica de negócio relacionada aos tópicos.
  * Responsável por validações, conversões entre DTOs e entidades,
@@ -25,7 +52,15 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class TopicoService {
 
+    /** Tamanho máximo de página aceito na listagem por cursor. */
+    public static final int TAMANHO_MAXIMO_PAGINA_CURSOR = 100;
+
     private final TopicoRepository topicoRepository;
+    private final TopicoArquivoRepository topicoArquivoRepository;
+    private final FiltroBloomTopicos filtroBloomTopicos;
+    private final MotorBuscaTopicos motorBuscaTopicos;
+    private final CacheDadosTopicos cacheDadosTopicos;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Cria um novo tópico após validação.
@@ -38,10 +73,13 @@ public class TopicoService {
     public DetalhesTopicoDto criarTopico(CadastroTopicoDto dto) {
         log.info("Criando novo tópico com título: {}", dto.titulo());
 
-        // Validação: verificar se já existe tópico com mesmo título e mensagem
-        if (topicoRepository.existsByTituloAndMensagem(dto.titulo(), dto.mensagem())) {
-            log.warn("Tentativa de criar tópico duplicado: título='{}', mensagem='{}'",
-                    dto.titulo(), dto.mensagem());
+        // Validação: verificar se já existe tópico com mesmo título e mensagem.
+        // O filtro de Bloom descarta sem consultar o banco os conteúdos
+        // certamente novos; nos demais casos a busca usa o índice do hash.
+        String hashConteudo = HashConteudoTopico.calcular(dto.titulo(), dto.mensagem());
+        if (filtroBloomTopicos.podeConter(hashConteudo)
+                && topicoRepository.existsByHashConteudo(hashConteudo)) {
+            log.warn("Tentativa de criar tópico duplicado: título='{}'", dto.titulo());
             throw new TopicoJaExisteException(
                     "Já existe um tópico com o mesmo título e mensagem");
         }
@@ -53,58 +91,186 @@ public class TopicoService {
                 dto.autor(),
                 dto.curso());
 
-        // Salvar no banco de dados
-        Topico topicoSalvo = topicoRepository.save(topico);
+        // Salvar no banco de dados. Os índices únicos continuam sendo a garantia
+        // final contra duplicatas criadas concorrentemente
+        Topico topicoSalvo = salvar(topico);
+        filtroBloomTopicos.adicionar(hashConteudo);
         log.info("Tópico criado com sucesso. ID: {}", topicoSalvo.getId());
 
-        return DetalhesTopicoDto.fromTopico(topicoSalvo);
+        DetalhesTopicoDto detalhes = DetalhesTopicoDto.fromTopico(topicoSalvo);
+        eventPublisher.publishEvent(TopicoAlteradoEvent.criado(detalhes));
+
+        return detalhes;
     }
 
     /**
-     * Busca todos os tópicos com paginação.
+     * Busca os tópicos com paginação, aplicando os filtros informados.
+     * Retorna apenas o resumo de cada tópico; a mensagem completa não é lida.
      *
+     * @param filtro   os filtros opcionais (curso, status, autor, datas)
      * @param pageable informações de paginação
-     * @return página contendo os tópicos
+     * @return página contendo os resumos dos tópicos
+     */
+    @Transactional(readOnly = true)
+    public Page<ResumoTopicoDto> listarTopicos(FiltroTopicosDto filtro, Pageable pageable) {
+        log.info("Listando tópicos. Filtro: {}, Página: {}, Tamanho: {}",
+                filtro, pageable.getPageNumber(), pageable.getPageSize());
+
+        return topicoRepository.listarResumos(filtro, pageable);
+    }
+
+    /**
+     * Lista os tópicos por cursor (keyset), ordenados por data de criação
+     * decrescente e filtrados pelos critérios informados. Cada página custa uma
+     * única consulta indexada, sem OFFSET e sem COUNT, independentemente da
+     * profundidade da navegação.
+     *
+     * @param filtro  os filtros opcionais; devem ser os mesmos em toda a
+     *                navegação
+     * @param cursor  o cursor recebido da página anterior, ou null para a
+     *                primeira página
+     * @param tamanho a quantidade de itens por página
+     * @return a página de tópicos com os cursores de navegação
      */
     @Transactional(readOnly = true)
-    public Page<DetalhesTopicoDto> listarTopicos(Pageable pageable) {
-        log.info("Listando tópicos. Página: {}, Tamanho: {}",
-                pageable.getPageNumber(), pageable.getPageSize());
+    public PaginaCursorDto<ResumoTopicoDto> listarTopicosPorCursor(
+            FiltroTopicosDto filtro, String cursor, int tamanho) {
+
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA_CURSOR));
+        log.info("Listando tópicos por cursor. Filtro: {}, Tamanho: {}", filtro, limite);
+
+        CursorTopico posicao = cursor == null || cursor.isBlank() ? null : CursorTopico.decodificar(cursor);
+
+        // Busca um item a mais para saber se existe outra página na direção
+        // navegada
+        List<ResumoTopicoDto> topicos = topicoRepository.listarResumosPorCursor(filtro, posicao, limite + 1);
+        boolean temMais = topicos.size() > limite;
+        List<ResumoTopicoDto> pagina = new ArrayList<>(topicos.subList(0, Math.min(limite, topicos.size())));
+
+        if (posicao == null) {
+            return montarPaginaCursor(pagina, temMais, false);
+        }
+        if (!posicao.anterior()) {
+            return montarPaginaCursor(pagina, temMais, true);
+        }
 
-        return topicoRepository.findAll(pageable)
-                .map(DetalhesTopicoDto::fromTopico);
+        // Navegação para trás: a consulta vem em ordem crescente a partir do
+        // cursor e precisa ser invertida
+        Collections.reverse(pagina);
+        return montarPaginaCursor(pagina, true, temMais);
     }
 
     /**
-     * Busca um tópico específico pelo ID.
+     * Busca textual de tópicos por título e mensagem, ordenada por relevância.
+     * A busca é resolvida pelo MotorBuscaTopicos configurado; em seguida apenas
+     * os resumos dos tópicos da página são carregados.
+     *
+     * @param consulta o texto da busca
+     * @param pageable informações de paginação (a ordenação é por relevância)
+     * @return página com os tópicos encontrados e suas relevâncias
+     */
+    @Transactional(readOnly = true)
+    public Page<ResultadoBuscaTopicoDto> buscarTopicos(String consulta, Pageable pageable) {
+        log.info("Buscando tópicos. Consulta: '{}', Página: {}", consulta, pageable.getPageNumber());
+
+        if (consulta == null || consulta.isBlank()) {
+            return Page.empty(pageable);
+        }
+
+        Page<MotorBuscaTopicos.ResultadoBusca> resultados = motorBuscaTopicos.buscar(consulta.trim(), pageable);
+        if (resultados.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, resultados.getTotalElements());
+        }
+
+        Map<Long, ResumoTopicoDto> resumos = topicoRepository
+                .findResumosByIdIn(resultados.map(MotorBuscaTopicos.ResultadoBusca::id).getContent())
+                .stream()
+                .collect(Collectors.toMap(ResumoTopicoDto::id, Function.identity()));
+
+        // Mantém a ordem de relevância; ignora tópicos removidos entre as duas
+        // consultas
+        List<ResultadoBuscaTopicoDto> conteudo = resultados.getContent().stream()
+                .map(r -> {
+                    ResumoTopicoDto resumo = resumos.get(r.id());
+                    return resumo == null ? null : ResultadoBuscaTopicoDto.of(resumo, r.relevancia());
+                })
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PageImpl<>(conteudo, pageable, resultados.getTotalElements());
+    }
+
+    /**
+     * Busca um tópico específico pelo ID. Tópicos que não estão entre os
+     * ativos são buscados no arquivo (topicos_arquivados).
+     *
+     * A leitura passa pelo cache de dados de tópicos, fora de transação: um
+     * acerto não usa conexão do banco, e uma falta é lida em transação
+     * somente leitura.
      *
      * @param id o ID do tópico
      * @return DetalhesTopicoDto com os dados do tópico
      * @throws TopicoNaoEncontradoException se o tópico não existir
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public DetalhesTopicoDto obterTopicoById(Long id) {
         log.info("Buscando tópico com ID: {}", id);
 
-        Topico topico = topicoRepository.findById(id)
+        return cacheDadosTopicos.buscar(id)
                 .orElseThrow(() -> {
                     log.warn("Tópico não encontrado. ID: {}", id);
                     return new TopicoNaoEncontradoException(
                             "Tópico com ID " + id + " não encontrado");
                 });
+    }
 
-        return DetalhesTopicoDto.fromTopico(topico);
+    /**
+     * Busca apenas a versão e a data de alteração de um tópico, ativo ou
+     * arquivado, pelo cache de dados de tópicos.
+     *
+     * @param id o ID do tópico
+     * @return VersaoTopicoDto com a versão do tópico
+     * @throws TopicoNaoEncontradoException se o tópico não existir
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public VersaoTopicoDto obterVersaoTopico(Long id) {
+        return cacheDadosTopicos.buscar(id)
+                .map(VersaoTopicoDto::fromDetalhes)
+                .orElseThrow(() -> new TopicoNaoEncontradoException(
+                        "Tópico com ID " + id + " não encontrado"));
+    }
+
+    /**
+     * Busca no banco (primária) a versão atual de um tópico ativo, sem usar o
+     * cache. Confirma uma versão divergente do cache antes de recusar uma
+     * requisição com If-Match: o cache não vê alterações de outras
+     * instâncias até o TTL.
+     *
+     * @param id o ID do tópico
+     * @return VersaoTopicoDto com a versão atual do tópico
+     * @throws TopicoNaoEncontradoException se o tópico não existir ou estiver
+     *                                      arquivado
+     */
+    public VersaoTopicoDto recarregarVersaoTopico(Long id) {
+        return cacheDadosTopicos.recarregar(id)
+                .map(VersaoTopicoDto::fromDetalhes)
+                .orElseThrow(() -> new TopicoNaoEncontradoException(
+                        "Tópico com ID " + id + " não encontrado"));
     }
 
     /**
      * Atualiza um tópico existente.
      *
-     * @param id  o ID do tópico a ser atualizado
-     * @param dto os novos dados do tópico
+     * @param id             o ID do tópico a ser atualizado
+     * @param dto            os novos dados do tópico
+     * @param versaoEsperada a versão que o tópico deve ter, ou null para não
+     *                       verificar
      * @return DetalhesTopicoDto com os dados atualizados
-     * @throws TopicoNaoEncontradoException se o tópico não existir
+     * @throws TopicoNaoEncontradoException        se o tópico não existir
+     * @throws VersaoTopicoDesatualizadaException se o tópico não estiver na
+     *                                             versão esperada
      */
-    public DetalhesTopicoDto atualizarTopico(Long id, AtualizacaoTopicoDto dto) {
+    public DetalhesTopicoDto atualizarTopico(Long id, AtualizacaoTopicoDto dto, Long versaoEsperada) {
         log.info("Atualizando tópico com ID: {}", id);
 
         Topico topico = topicoRepository.findById(id)
@@ -114,13 +280,139 @@ public class TopicoService {
                             "Tópico com ID " + id + " não encontrado");
                 });
 
+        // A versão também é verificada pelo Hibernate (@Version) no UPDATE, o
+        // que cobre alterações concorrentes após esta leitura
+        if (versaoEsperada != null && !versaoEsperada.equals(topico.getVersao())) {
+            log.warn("Versão do tópico divergente. ID: {}, Esperada: {}, Atual: {}",
+                    id, versaoEsperada, topico.getVersao());
+            throw new VersaoTopicoDesatualizadaException(
+                    "O tópico foi alterado desde a versão informada em If-Match");
+        }
+
+        DetalhesTopicoDto anterior = DetalhesTopicoDto.fromTopico(topico);
+
+        // Validação: o novo conteúdo não pode duplicar o de outro tópico
+        if (dto.titulo() != null || dto.mensagem() != null) {
+            String hashConteudo = HashConteudoTopico.calcular(
+                    dto.titulo() != null ? dto.titulo() : topico.getTitulo(),
+                    dto.mensagem() != null ? dto.mensagem() : topico.getMensagem());
+
+            if (topicoRepository.existsByHashConteudoAndIdNot(hashConteudo, id)) {
+                log.warn("Tentativa de atualizar tópico para conteúdo duplicado. ID: {}", id);
+                throw new TopicoJaExisteException(
+                        "Já existe um tópico com o mesmo título e mensagem");
+            }
+            filtroBloomTopicos.adicionar(hashConteudo);
+        }
+
         // Atualizar apenas os campos fornecidos
         topico.atualizar(dto.titulo(), dto.mensagem(), dto.status());
 
-        Topico topicoAtualizado = topicoRepository.save(topico);
+        Topico topicoAtualizado = salvar(topico);
         log.info("Tópico atualizado com sucesso. ID: {}", topicoAtualizado.getId());
 
-        return DetalhesTopicoDto.fromTopico(topicoAtualizado);
+        DetalhesTopicoDto detalhes = DetalhesTopicoDto.fromTopico(topicoAtualizado);
+        eventPublisher.publishEvent(TopicoAlteradoEvent.atualizado(anterior, detalhes));
+
+        return detalhes;
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um tópico, com um único UPDATE
+     * condicionado à versão esperada. Diferente de atualizarTopico, o tópico
+     * não é carregado como entidade: o estado anterior vem do cache de dados
+     * de tópicos (relido do banco se a versão divergir) e a duplicidade de
+     * conteúdo é garantida pelos índices únicos, sem consulta prévia.
+     *
+     * Se o UPDATE não alterar nenhuma linha, o tópico é relido do banco para
+     * distinguir a remoção (inclusive por outra instância, com o tópico ainda
+     * no cache local) da alteração concorrente.
+     *
+     * Campos iguais aos atuais são ignorados; se nenhum campo mudar, o tópico
+     * é retornado sem UPDATE e sem incrementar a versão.
+     *
+     * @param id             o ID do tópico a ser atualizado
+     * @param dto            os campos a alterar (null mantém o valor atual)
+     * @param versaoEsperada a versão que o tópico deve ter
+     * @return DetalhesTopicoDto com os dados atualizados
+     * @throws TopicoNaoEncontradoException             se o tópico não existir
+     * @throws ObjectOptimisticLockingFailureException se o tópico não estiver
+     *                                                  na versão esperada
+     * @throws TopicoJaExisteException                  se o novo conteúdo
+     *                                                  duplicar outro tópico
+     */
+    public DetalhesTopicoDto atualizarTopicoParcialmente(Long id, AtualizacaoTopicoDto dto, long versaoEsperada) {
+        log.info("Atualizando parcialmente tópico com ID: {}, Versão: {}", id, versaoEsperada);
+
+        Supplier<TopicoNaoEncontradoException> naoEncontrado = () -> {
+            log.warn("Tópico não encontrado para atualização. ID: {}", id);
+            return new TopicoNaoEncontradoException(
+                    "Tópico com ID " + id + " não encontrado");
+        };
+
+        // O estado anterior vem do cache; uma versão divergente é confirmada
+        // no banco, pois o cache pode não ter alterações de outras instâncias
+        DetalhesTopicoDto anterior = cacheDadosTopicos.buscarAtivo(id).orElseThrow(naoEncontrado);
+        if (anterior.versao() != versaoEsperada) {
+            anterior = cacheDadosTopicos.recarregar(id).orElseThrow(naoEncontrado);
+        }
+
+        if (anterior.versao() != versaoEsperada) {
+            log.warn("Versão do tópico divergente. ID: {}, Esperada: {}, Atual: {}",
+                    id, versaoEsperada, anterior.versao());
+            throw new ObjectOptimisticLockingFailureException(Topico.class, id);
+        }
+
+        String titulo = alterado(dto.titulo(), anterior.titulo());
+        String mensagem = alterado(dto.mensagem(), anterior.mensagem());
+        StatusTopico status = alterado(dto.status(), anterior.status());
+        if (titulo == null && mensagem == null && status == null) {
+            log.info("Nenhum campo alterado no tópico. ID: {}", id);
+            return anterior;
+        }
+
+        // TIMESTAMP do MySQL sem fração de segundos: a data retornada deve ser
+        // a mesma que fica gravada
+        LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        int atualizados;
+        try {
+            atualizados = topicoRepository.atualizarCampos(id, versaoEsperada, titulo, mensagem, status, agora);
+
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Violação de unicidade ao atualizar tópico. ID: {}", id);
+            throw new TopicoJaExisteException(
+                    "Já existe um tópico com o mesmo título ou conteúdo", e);
+        }
+
+        // Alterado ou removido por outra requisição entre a leitura e o UPDATE,
+        // ou removido antes dela por outra instância
+        if (atualizados == 0) {
+            if (cacheDadosTopicos.recarregar(id).isEmpty()) {
+                throw naoEncontrado.get();
+            }
+            log.warn("Tópico alterado concorrentemente. ID: {}, Versão esperada: {}", id, versaoEsperada);
+            throw new ObjectOptimisticLockingFailureException(Topico.class, id);
+        }
+
+        DetalhesTopicoDto detalhes = new DetalhesTopicoDto(
+                id,
+                titulo != null ? titulo : anterior.titulo(),
+                mensagem != null ? mensagem : anterior.mensagem(),
+                anterior.dataCriacao(),
+                status != null ? status : anterior.status(),
+                anterior.autor(),
+                anterior.curso(),
+                agora,
+                versaoEsperada + 1);
+
+        if (titulo != null || mensagem != null) {
+            filtroBloomTopicos.adicionar(HashConteudoTopico.calcular(detalhes.titulo(), detalhes.mensagem()));
+        }
+        log.info("Tópico atualizado parcialmente com sucesso. ID: {}, Versão: {}", id, detalhes.versao());
+
+        eventPublisher.publishEvent(TopicoAlteradoEvent.atualizado(anterior, detalhes));
+
+        return detalhes;
     }
 
     /**
@@ -133,13 +425,73 @@ public class TopicoService {
         log.info("Deletando tópico com ID: {}", id);
 
         // Verificar se o tópico existe
-        if (!topicoRepository.existsById(id)) {
-            log.warn("Tentativa de deletar tópico inexistente. ID: {}", id);
-            throw new TopicoNaoEncontradoException(
-                    "Tópico com ID " + id + " não encontrado");
-        }
+        Topico topico = topicoRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Tentativa de deletar tópico inexistente. ID: {}", id);
+                    return new TopicoNaoEncontradoException(
+                            "Tópico com ID " + id + " não encontrado");
+                });
 
-        topicoRepository.deleteById(id);
+        DetalhesTopicoDto anterior = DetalhesTopicoDto.fromTopico(topico);
+
+        topicoRepository.delete(topico);
         log.info("Tópico deletado com sucesso. ID: {}", id);
+
+        eventPublisher.publishEvent(TopicoAlteradoEvent.removido(anterior));
+    }
+
+    /**
+     * Salva o tópico e sincroniza com o banco imediatamente, convertendo
+     * violações dos índices únicos (título ou hash de conteúdo) em
+     * TopicoJaExisteException.
+     *
+     * @param topico o tópico a ser salvo
+     * @return o tópico salvo
+     * @throws TopicoJaExisteException se o conteúdo violar um índice único
+     */
+    private Topico salvar(Topico topico) {
+        try {
+            return topicoRepository.saveAndFlush(topico);
+
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Violação de unicidade ao salvar tópico: título='{}'", topico.getTitulo());
+            throw new TopicoJaExisteException(
+                    "Já existe um tópico com o mesmo título ou conteúdo", e);
+        }
+    }
+
+    /**
+     * @return o novo valor, ou null se ausente ou igual ao atual
+     */
+    private static <T> T alterado(T novo, T atual) {
+        return novo == null || novo.equals(atual) ? null : novo;
+    }
+
+    /**
+     * Monta a página de resposta da listagem por cursor.
+     *
+     * @param topicos     os tópicos da página, já na ordem de exibição
+     * @param temProxima  se existem tópicos após o último da página
+     * @param temAnterior se existem tópicos antes do primeiro da página
+     * @return a página com os cursores de navegação
+     */
+    private PaginaCursorDto<ResumoTopicoDto> montarPaginaCursor(
+            List<ResumoTopicoDto> topicos, boolean temProxima, boolean temAnterior) {
+
+        String proximoCursor = null;
+        String cursorAnterior = null;
+
+        if (!topicos.isEmpty()) {
+            if (temProxima) {
+                ResumoTopicoDto ultimo = topicos.get(topicos.size() - 1);
+                proximoCursor = CursorTopico.proximo(ultimo.dataCriacao(), ultimo.id()).codificar();
+            }
+            if (temAnterior) {
+                ResumoTopicoDto primeiro = topicos.get(0);
+                cursorAnterior = CursorTopico.anterior(primeiro.dataCriacao(), primeiro.id()).codificar();
+            }
+        }
+
+        return new PaginaCursorDto<>(List.copyOf(topicos), topicos.size(), proximoCursor, cursorAnterior);
     }
 }
@@ -0,0 +1,8 @@
+-- Usuário padrão para o perfil h2 (senha: 123456)
+INSERT INTO usuarios (login, senha, created_at, updated_at)
+VALUES (
+        'admin@forum.com',
+        '$2a$10$/NE2Dh9fcazipHs57KTKl.2ARxCgI.NBM9m.FOrpmjrTY8PnsuqTS',
+        CURRENT_TIMESTAMP,
+        CURRENT_TIMESTAMP
+    );
@@ -0,0 +1,33 @@
+-- Tabela de auditoria para o perfil h2 (não é uma entidade JPA; no MySQL é
+-- criada pelas migrações V1 e V7)
+CREATE TABLE IF NOT EXISTS topicos_auditoria (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    topico_id BIGINT NOT NULL,
+    acao VARCHAR(50) NOT NULL,
+    dados_anteriores CLOB,
+    dados_novos CLOB,
+    usuario VARCHAR(100),
+    data_modificacao DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_auditoria_topico_id ON topicos_auditoria(topico_id);
+
+-- Heartbeat da réplica de leitura (no MySQL, criada pela migração V10)
+CREATE TABLE IF NOT EXISTS replicacao_heartbeat (
+    id TINYINT PRIMARY KEY,
+    atualizado_em BIGINT NOT NULL
+);
+MERGE INTO replicacao_heartbeat (id, atualizado_em) KEY (id) VALUES (1, 0);
+
+-- Arquivo de tópicos fechados (no MySQL, criada pela migração V11)
+CREATE TABLE IF NOT EXISTS topicos_arquivados (
+    id BIGINT PRIMARY KEY,
+    titulo VARCHAR(255) NOT NULL,
+    mensagem CLOB NOT NULL,
+    data_criacao TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    autor VARCHAR(100) NOT NULL,
+    curso VARCHAR(150) NOT NULL,
+    versao BIGINT NOT NULL,
+    updated_at TIMESTAMP NULL,
+    arquivado_em TIMESTAMP NOT NULL
+);
@@ -0,0 +1,9 @@
+-- Heartbeat de replicação: quando a réplica de leitura está habilitada, a
+-- aplicação grava o instante atual (epoch em milissegundos) nesta linha na
+-- primária e o lê na réplica; a diferença é o atraso da replicação.
+CREATE TABLE replicacao_heartbeat (
+    id TINYINT PRIMARY KEY,
+    atualizado_em BIGINT NOT NULL
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+INSERT INTO replicacao_heartbeat (id, atualizado_em) VALUES (1, 0);
@@ -0,0 +1,19 @@
+-- Arquivo dos tópicos FECHADO/SOLUCIONADO antigos, movidos de topicos em
+-- lotes pelo ArquivamentoTopicos. Mantém topicos (e os seus índices) restrita
+-- aos tópicos ativos; GET /topicos/{id} consulta esta tabela quando o tópico
+-- não está em topicos.
+--
+-- Apenas a chave primária: o arquivo é lido somente por ID. As datas são
+-- DATETIME para que o MySQL não aplique ON UPDATE automático.
+CREATE TABLE topicos_arquivados (
+    id BIGINT PRIMARY KEY,
+    titulo VARCHAR(255) NOT NULL,
+    mensagem LONGTEXT NOT NULL,
+    data_criacao DATETIME NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    autor VARCHAR(100) NOT NULL,
+    curso VARCHAR(150) NOT NULL,
+    versao BIGINT NOT NULL,
+    updated_at DATETIME NULL,
+    arquivado_em DATETIME NOT NULL
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
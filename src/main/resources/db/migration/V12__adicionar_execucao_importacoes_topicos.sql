@@ -0,0 +1,5 @@
+-- Execução que detém a importação. A reserva é feita no banco (UPDATE
+-- condicional sobre situacao e atualizada_em), de modo que o mesmo ID não
+-- execute em duas instâncias; as gravações de cada chunk só valem para a
+-- execução que ainda detém a reserva.
+ALTER TABLE importacoes_topicos ADD COLUMN execucao CHAR(36) NULL;
@@ -0,0 +1,12 @@
+-- Hash SHA-256 de (titulo + '\0' + mensagem) para detectar tópicos duplicados
+-- com uma busca indexada de largura fixa, em vez de comparar a coluna LONGTEXT.
+-- Coluna gerada STORED: o MySQL calcula o valor das linhas existentes ao criar a
+-- coluna (backfill) e o mantém atualizado em toda inserção e atualização.
+ALTER TABLE topicos
+ADD COLUMN hash_conteudo CHAR(64) GENERATED ALWAYS AS (
+        SHA2(CONCAT(titulo, CHAR(0 USING utf8mb4), mensagem), 256)
+    ) STORED NOT NULL;
+CREATE UNIQUE INDEX uk_topicos_hash_conteudo ON topicos(hash_conteudo);
+-- O índice de prefixo da mensagem existia apenas para a verificação de
+-- duplicatas e deixa de ser necessário
+DROP INDEX idx_topicos_mensagem ON topicos;
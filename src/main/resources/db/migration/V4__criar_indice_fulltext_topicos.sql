@@ -0,0 +1,3 @@
+-- Índice FULLTEXT para a busca textual em título e mensagem (GET /topicos/busca)
+ALTER TABLE topicos
+ADD FULLTEXT INDEX ft_topicos_titulo_mensagem (titulo, mensagem);
@@ -0,0 +1,20 @@
+-- Índices compostos para a listagem filtrada de tópicos (GET /topicos com
+-- curso, status, autor e faixa de datas), ordenada pela data de criação.
+-- Ex.: "tópicos NAO_RESPONDIDO do curso X, mais recentes primeiro" vira uma
+-- única varredura de faixa em idx_topicos_curso_status_data, sem filesort.
+--
+-- As colunas de data são ascendentes: a varredura reversa do índice entrega
+-- (data_criacao DESC, id DESC), pois o InnoDB anexa a chave primária a todo
+-- índice secundário.
+CREATE INDEX idx_topicos_curso_data ON topicos(curso, data_criacao);
+CREATE INDEX idx_topicos_status_data ON topicos(status, data_criacao);
+CREATE INDEX idx_topicos_autor_data ON topicos(autor, data_criacao);
+CREATE INDEX idx_topicos_curso_status_data ON topicos(curso, status, data_criacao);
+-- Os índices simples passam a ser prefixos dos compostos
+DROP INDEX idx_topicos_curso ON topicos;
+DROP INDEX idx_topicos_status ON topicos;
+DROP INDEX idx_topicos_autor ON topicos;
+-- Recria o índice de data como ascendente pelo mesmo motivo: o índice DESC com
+-- a chave primária ascendente não atende ORDER BY data_criacao DESC, id DESC
+DROP INDEX idx_topicos_data_criacao ON topicos;
+CREATE INDEX idx_topicos_data_criacao ON topicos(data_criacao);
@@ -0,0 +1,5 @@
+-- Versão da linha, incrementada pelo Hibernate (@Version) a cada atualização.
+-- Base das ETags de GET /topicos e do controle de concorrência otimista de
+-- PUT /topicos/{id} (If-Match). A data da última alteração continua sendo
+-- mantida pelo MySQL em updated_at (Last-Modified).
+ALTER TABLE topicos ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- A auditoria é gravada de forma assíncrona, após o commit da alteração: o
+-- registro de remoção chega depois que o tópico já não existe, e o histórico
+-- deve ser preservado quando o tópico é removido (ON DELETE CASCADE).
+ALTER TABLE topicos_auditoria DROP FOREIGN KEY topicos_auditoria_ibfk_1;
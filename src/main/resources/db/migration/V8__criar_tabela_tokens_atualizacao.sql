@@ -0,0 +1,19 @@
+-- Tokens de atualização (refresh tokens) de POST /login/atualizar. Apenas o
+-- SHA-256 do token é armazenado; a validação é uma busca pelo índice único do
+-- hash. Os tokens de uma mesma sessão de login formam uma família: cada uso
+-- substitui o token por um novo (rotação) e o reuso de um token substituído
+-- revoga a família inteira.
+CREATE TABLE tokens_atualizacao (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    hash CHAR(64) NOT NULL,
+    familia CHAR(36) NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    expira_em DATETIME NOT NULL,
+    substituido_em DATETIME NULL,
+    revogado BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE INDEX uk_tokens_atualizacao_hash (hash),
+    INDEX idx_tokens_atualizacao_familia (familia),
+    INDEX idx_tokens_atualizacao_expira_em (expira_em),
+    FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
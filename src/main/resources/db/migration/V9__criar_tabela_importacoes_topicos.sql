@@ -0,0 +1,14 @@
+-- Ponto de controle das importações de tópicos em NDJSON
+-- (POST /topicos/importacoes/{id}). Cada chunk confirmado atualiza a linha da
+-- importação na mesma transação em que os tópicos são inseridos; ao reenviar
+-- o arquivo, as linhas até linhas_processadas são ignoradas.
+CREATE TABLE importacoes_topicos (
+    id VARCHAR(64) PRIMARY KEY,
+    situacao VARCHAR(20) NOT NULL,
+    linhas_processadas BIGINT NOT NULL DEFAULT 0,
+    criados BIGINT NOT NULL DEFAULT 0,
+    rejeitados BIGINT NOT NULL DEFAULT 0,
+    usuario VARCHAR(100) NULL,
+    iniciada_em DATETIME NOT NULL,
+    atualizada_em DATETIME NOT NULL
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
@@ -0,0 +1,141 @@
+package br.com.alura.forum.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes de POST /login e POST /login/atualizar (perfil h2, com o usuário
+ * padrão admin@forum.com): rotação dos tokens de atualização e revogação da
+ * família ao detectar reuso.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class AutenticacaoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void loginRetornaTokenDeAcessoETokenDeAtualizacao() throws Exception {
+        mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\":\"admin@forum.com\",\"senha\":\"123456\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tipo").value("Bearer"))
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andExpect(jsonPath("$.tokenAtualizacao").isNotEmpty());
+    }
+
+    @Test
+    void loginComSenhaInvalidaRetorna401() throws Exception {
+        mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\":\"admin@forum.com\",\"senha\":\"errada\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void atualizacaoSubstituiOTokenERetornaTokenDeAcessoValido() throws Exception {
+        JsonNode login = login();
+
+        JsonNode atualizado = atualizar(login.get("tokenAtualizacao").asText())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tipo").value("Bearer"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .transform(this::lerJson);
+
+        String novoToken = atualizado.get("tokenAtualizacao").asText();
+        assertThat(novoToken).isNotBlank().isNotEqualTo(login.get("tokenAtualizacao").asText());
+
+        // O token de acesso renovado autentica as requisições
+        mockMvc.perform(get("/topicos")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + atualizado.get("token").asText()))
+                .andExpect(status().isOk());
+
+        // O sucessor pode ser usado uma vez
+        atualizar(novoToken).andExpect(status().isOk());
+    }
+
+    @Test
+    void reusoDeTokenSubstituidoRevogaAFamilia() throws Exception {
+        String original = login().get("tokenAtualizacao").asText();
+
+        String sucessor = atualizar(original)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .transform(this::lerJson)
+                .get("tokenAtualizacao")
+                .asText();
+
+        // Reapresentar o token já substituído indica vazamento
+        atualizar(original).andExpect(status().isUnauthorized());
+
+        // Toda a família é revogada, inclusive o sucessor ainda não usado
+        atualizar(sucessor).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void reusoNaoAfetaOutrasSessoes() throws Exception {
+        String outraSessao = login().get("tokenAtualizacao").asText();
+        String original = login().get("tokenAtualizacao").asText();
+
+        atualizar(original).andExpect(status().isOk());
+        atualizar(original).andExpect(status().isUnauthorized());
+
+        atualizar(outraSessao).andExpect(status().isOk());
+    }
+
+    @Test
+    void tokenDesconhecidoRetorna401() throws Exception {
+        atualizar("token-inexistente").andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode login() throws Exception {
+        return mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\":\"admin@forum.com\",\"senha\":\"123456\"}"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .transform(this::lerJson);
+    }
+
+    private ResultActions atualizar(String tokenAtualizacao) throws Exception {
+        return mockMvc.perform(post("/login/atualizar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        objectMapper.createObjectNode().put("tokenAtualizacao", tokenAtualizacao))));
+    }
+
+    private JsonNode lerJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Resposta não é um JSON válido: " + json, e);
+        }
+    }
+}
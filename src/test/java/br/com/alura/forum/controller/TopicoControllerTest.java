@@ -0,0 +1,306 @@
+package br.com.alura.forum.controller;
+
+import br.com.alura.forum.repository.TopicoRepository;
+import br.com.alura.forum.repository.UsuarioRepository;
+import br.com.alura.forum.security.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes dos endpoints de tópicos (perfil h2): navegação por cursor em
+ * GET /topicos/cursor e requisições condicionais (ETag, inclusive da resposta
+ * em gzip) em GET, PUT e PATCH /topicos/{id}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class TopicoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    private String autorizacao;
+
+    @BeforeEach
+    void autenticar() {
+        // Emitido diretamente, sem consumir o limite de tentativas de login
+        autorizacao = "Bearer " + tokenService.gerarTokenAcesso(
+                usuarioRepository.findByLogin("admin@forum.com").orElseThrow());
+    }
+
+    @Test
+    void patchSemIfMatchRetorna428() throws Exception {
+        JsonNode topico = lerJson(criarTopico("patch-428").getResponse().getContentAsString());
+
+        mockMvc.perform(patch("/topicos/{id}", topico.get("id").asLong())
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"FECHADO\"}"))
+                .andExpect(status().isPreconditionRequired());
+    }
+
+    @Test
+    void patchComVersaoAtualAtualizaERetornaNovaEtag() throws Exception {
+        MvcResult criacao = criarTopico("patch-200");
+        long id = lerJson(criacao.getResponse().getContentAsString()).get("id").asLong();
+        String etag = criacao.getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult atualizacao = mockMvc.perform(patch("/topicos/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"FECHADO\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FECHADO"))
+                .andReturn();
+
+        assertThat(atualizacao.getResponse().getHeader(HttpHeaders.ETAG)).isNotNull().isNotEqualTo(etag);
+
+        // A leitura seguinte já reflete a alteração
+        mockMvc.perform(get("/topicos/{id}", id).header(HttpHeaders.AUTHORIZATION, autorizacao))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, atualizacao.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(jsonPath("$.status").value("FECHADO"));
+    }
+
+    @Test
+    void patchComVersaoDesatualizadaRetorna409ENaoAltera() throws Exception {
+        MvcResult criacao = criarTopico("patch-409");
+        long id = lerJson(criacao.getResponse().getContentAsString()).get("id").asLong();
+        String etagOriginal = criacao.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/topicos/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .header(HttpHeaders.IF_MATCH, etagOriginal)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"FECHADO\"}"))
+                .andExpect(status().isOk());
+
+        // Segundo cliente, ainda com a ETag da criação
+        mockMvc.perform(patch("/topicos/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .header(HttpHeaders.IF_MATCH, etagOriginal)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"SOLUCIONADO\"}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/topicos/{id}", id).header(HttpHeaders.AUTHORIZATION, autorizacao))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FECHADO"));
+    }
+
+    @Test
+    void patchDeTopicoRemovidoPorOutraInstanciaRetorna404() throws Exception {
+        MvcResult criacao = criarTopico("patch-404");
+        long id = lerJson(criacao.getResponse().getContentAsString()).get("id").asLong();
+        String etag = criacao.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/topicos/{id}", id).header(HttpHeaders.AUTHORIZATION, autorizacao))
+                .andExpect(status().isOk());
+
+        // Remoção direta no banco, sem evento: o tópico continua no cache local
+        topicoRepository.deleteById(id);
+
+        mockMvc.perform(patch("/topicos/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"FECHADO\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getComIfNoneMatchDaVersaoAtualRetorna304() throws Exception {
+        MvcResult criacao = criarTopico("get-304");
+        long id = lerJson(criacao.getResponse().getContentAsString()).get("id").asLong();
+        String etag = criacao.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/topicos/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void respostaEmGzipTemEtagPropriaAceitaEmIfNoneMatch() throws Exception {
+        String sufixo = UUID.randomUUID().toString();
+        String corpo = objectMapper.writeValueAsString(objectMapper.createObjectNode()
+                .put("titulo", "gzip " + sufixo.substring(0, 8))
+                .put("mensagem", ("Mensagem longa do tópico " + sufixo + ". ").repeat(100))
+                .put("autor", "Teste")
+                .put("curso", "Spring Boot"));
+        long id = lerJson(mockMvc.perform(post("/topicos")
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString()).get("id").asLong();
+
+        String etagJson = mockMvc.perform(get("/topicos/{id}", id).header(HttpHeaders.AUTHORIZATION, autorizacao))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        String etagGzip = mockMvc.perform(get("/topicos/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        assertThat(etagGzip).isNotNull().isNotEqualTo(etagJson);
+
+        mockMvc.perform(get("/topicos/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etagGzip))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etagGzip));
+
+        mockMvc.perform(get("/topicos/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .header(HttpHeaders.IF_NONE_MATCH, etagJson))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etagJson));
+    }
+
+    @Test
+    void putComVersaoDesatualizadaRetorna412() throws Exception {
+        MvcResult criacao = criarTopico("put-412");
+        long id = lerJson(criacao.getResponse().getContentAsString()).get("id").asLong();
+        String etagOriginal = criacao.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/topicos/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .header(HttpHeaders.IF_MATCH, etagOriginal)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"FECHADO\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/topicos/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .header(HttpHeaders.IF_MATCH, etagOriginal)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"SOLUCIONADO\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void cursorAnteriorVoltaParaAPaginaAnterior() throws Exception {
+        String curso = "Curso " + UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            criarTopico("cursor-" + i, curso);
+        }
+
+        JsonNode primeira = listarPorCursor(curso, null);
+        assertThat(primeira.hasNonNull("cursorAnterior")).isFalse();
+        assertThat(ids(primeira)).hasSize(2);
+
+        JsonNode segunda = listarPorCursor(curso, primeira.get("proximoCursor").asText());
+        assertThat(ids(segunda)).hasSize(2).doesNotContainAnyElementsOf(ids(primeira));
+
+        JsonNode terceira = listarPorCursor(curso, segunda.get("proximoCursor").asText());
+        assertThat(ids(terceira)).hasSize(1);
+        assertThat(terceira.hasNonNull("proximoCursor")).isFalse();
+
+        // Voltando a partir da terceira e da segunda páginas
+        JsonNode voltaSegunda = listarPorCursor(curso, terceira.get("cursorAnterior").asText());
+        assertThat(ids(voltaSegunda)).isEqualTo(ids(segunda));
+
+        JsonNode voltaPrimeira = listarPorCursor(curso, voltaSegunda.get("cursorAnterior").asText());
+        assertThat(ids(voltaPrimeira)).isEqualTo(ids(primeira));
+        assertThat(voltaPrimeira.hasNonNull("cursorAnterior")).isFalse();
+    }
+
+    private MvcResult criarTopico(String prefixo) throws Exception {
+        return criarTopico(prefixo, "Spring Boot");
+    }
+
+    /**
+     * Cria um tópico com título e mensagem únicos, já que conteúdo duplicado
+     * é recusado.
+     */
+    private MvcResult criarTopico(String prefixo, String curso) throws Exception {
+        String sufixo = UUID.randomUUID().toString();
+        String corpo = objectMapper.writeValueAsString(objectMapper.createObjectNode()
+                .put("titulo", prefixo + " " + sufixo.substring(0, 8))
+                .put("mensagem", "Mensagem do tópico " + sufixo)
+                .put("autor", "Teste")
+                .put("curso", curso));
+
+        return mockMvc.perform(post("/topicos")
+                        .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+    }
+
+    private JsonNode listarPorCursor(String curso, String cursor) throws Exception {
+        var requisicao = get("/topicos/cursor")
+                .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                .param("curso", curso)
+                .param("size", "2");
+        if (cursor != null) {
+            requisicao.param("cursor", cursor);
+        }
+
+        return lerJson(mockMvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+    }
+
+    private static List<Long> ids(JsonNode pagina) {
+        List<Long> ids = new ArrayList<>();
+        pagina.get("conteudo").forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+
+    private JsonNode lerJson(String json) throws Exception {
+        return objectMapper.readTree(json);
+    }
+}